@@ -0,0 +1,84 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many tasks call a downstream service at once, whichever executor runs them. A task waits for a permit
+ * before it starts, so the width of a fan-out is set by what the downstream can take rather than by thread counts.
+ * A task submitted with a future, whose caller can give up on it, does not wait if it was cancelled while queued and
+ * is cancelled when it cannot get a permit in time. A plain task, such as a bulk case event, waits until it gets a
+ * permit, so it is never dropped because the downstream is busy.
+ */
+public class ConcurrencyLimiter implements TaskDecorator {
+
+    private final String downstream;
+    private final int maxConcurrentCalls;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+
+    public ConcurrencyLimiter(String downstream, int maxConcurrentCalls, long acquireTimeoutMillis) {
+        this.downstream = downstream;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        if (task instanceof Future) {
+            return decorate((Future<?>) task, task);
+        }
+        return () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted waiting for a permit to call " + downstream, e);
+            }
+            runAndRelease(task);
+        };
+    }
+
+    private Runnable decorate(Future<?> future, Runnable task) {
+        return () -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            if (!tryAcquire()) {
+                future.cancel(false);
+                return;
+            }
+            runAndRelease(task);
+        };
+    }
+
+    private void runAndRelease(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+
+    public int getInFlight() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.hmcts.ethos.replacement.docmosis.config;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +16,9 @@ public class HttpClientConfiguration {
     @Value("${ccd.client.timeout}")
     private int timeout;
 
+    @Value("${document_management.download.max-connections:20}")
+    private int documentMaxConnections;
+
     @Bean
     public RestTemplate restTemplate() {
         var restTemplate = new RestTemplate();
@@ -22,6 +26,30 @@ public class HttpClientConfiguration {
         return restTemplate;
     }
 
+    /**
+     * Pooled client used to stream documents from the document store, so a download can be read as it arrives.
+     */
+    @Bean(name = "documentHttpClient")
+    public CloseableHttpClient documentHttpClient() {
+        var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(documentMaxConnections);
+        connectionManager.setDefaultMaxPerRoute(documentMaxConnections);
+
+        RequestConfig config = RequestConfig.custom()
+            .setConnectTimeout(timeout)
+            .setConnectionRequestTimeout(timeout)
+            .setSocketTimeout(timeout)
+            .build();
+
+        return HttpClientBuilder
+            .create()
+            .useSystemProperties()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(config)
+            .evictExpiredConnections()
+            .build();
+    }
+
     private CloseableHttpClient getHttpClient() {
         RequestConfig config = RequestConfig.custom()
             .setConnectTimeout(timeout)
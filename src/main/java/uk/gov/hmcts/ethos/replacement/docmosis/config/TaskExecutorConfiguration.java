@@ -0,0 +1,139 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Shared, bounded executors for work the services run in the background. Each pool has a fixed number of threads
+ * and a bounded queue, so concurrent callbacks share the same threads rather than starting pools of their own.
+ * The executors that fan out calls to CCD share one concurrency limit, and can run each call on a virtual thread
+ * instead when the application runs on JDK 21 or later.
+ */
+@Configuration
+public class TaskExecutorConfiguration {
+
+    private static final int AWAIT_TERMINATION_SECONDS = 60;
+
+    private final TaskExecutorMetrics taskExecutorMetrics;
+
+    @Value("${document-generation.async.pool-size:5}")
+    private int poolSize;
+    @Value("${document-generation.async.queue-capacity:50}")
+    private int queueCapacity;
+    @Value("${multiple-letters.batch.concurrency:10}")
+    private int letterBatchConcurrency;
+    @Value("${multiple-letters.batch.queue-capacity:2000}")
+    private int letterBatchQueueCapacity;
+    @Value("${multiple-schedule.fetch.concurrency:20}")
+    private int scheduleFetchConcurrency;
+    @Value("${multiple-schedule.fetch.queue-capacity:200}")
+    private int scheduleFetchQueueCapacity;
+    @Value("${bulk-update.concurrency:20}")
+    private int bulkUpdateConcurrency;
+    @Value("${bulk-update.queue-capacity:1000}")
+    private int bulkUpdateQueueCapacity;
+    @Value("${ccd.fan-out.virtual-threads:false}")
+    private boolean ccdFanOutVirtualThreads;
+    @Value("${ccd.fan-out.max-concurrent-calls:20}")
+    private int ccdMaxConcurrentCalls;
+    @Value("${ccd.fan-out.acquire-timeout:30000}")
+    private long ccdAcquireTimeout;
+
+    public TaskExecutorConfiguration(TaskExecutorMetrics taskExecutorMetrics) {
+        this.taskExecutorMetrics = taskExecutorMetrics;
+    }
+
+    @Bean(name = "documentGenerationExecutor")
+    public ThreadPoolTaskExecutor documentGenerationExecutor() {
+        return boundedExecutor("document-generation", poolSize, queueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(name = "letterBatchExecutor")
+    public ThreadPoolTaskExecutor letterBatchExecutor() {
+        return boundedExecutor("letter-batch", letterBatchConcurrency, letterBatchQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(name = "scheduleFetchExecutor")
+    public TaskExecutor scheduleFetchExecutor() {
+        return ccdFanOutExecutor("schedule-fetch", scheduleFetchConcurrency, scheduleFetchQueueCapacity,
+                task -> task);
+    }
+
+    /**
+     * Runs the case events of the legacy bulk creation and update callbacks. When the queue is full the callback
+     * thread runs the event itself, which slows the callback down instead of dropping the update. A failed event is
+     * logged and counted, but not rethrown, so it does not stop the callback sending the remaining events.
+     */
+    @Bean(name = "bulkUpdateExecutor")
+    public TaskExecutor bulkUpdateExecutor() {
+        return ccdFanOutExecutor("bulk-update", bulkUpdateConcurrency, bulkUpdateQueueCapacity,
+                TaskExecutorConfiguration::containFailure);
+    }
+
+    /**
+     * Limits the calls made to CCD at once by the bulk update and schedule fetch executors together. The default
+     * limit is lower than the threads of the two pools combined, so it applies when both are busy. Only the schedule
+     * partitions, which the caller waits on through a future, give up after the acquire timeout; bulk case events
+     * wait for a permit however long it takes.
+     */
+    @Bean(name = "ccdConcurrencyLimiter")
+    public ConcurrencyLimiter ccdConcurrencyLimiter() {
+        return taskExecutorMetrics.register(new ConcurrencyLimiter("ccd", ccdMaxConcurrentCalls,
+                ccdAcquireTimeout));
+    }
+
+    private TaskExecutor ccdFanOutExecutor(String name, int concurrency, int queueCapacity,
+                                           TaskDecorator failureHandling) {
+        var metrics = taskExecutorMetrics.taskDecorator(name);
+        var limiter = ccdConcurrencyLimiter();
+        TaskDecorator decorator = task -> failureHandling.decorate(metrics.decorate(limiter.decorate(task)));
+        if (ccdFanOutVirtualThreads) {
+            var executor = VirtualThreadTaskExecutor.create(decorator, AWAIT_TERMINATION_SECONDS);
+            if (executor.isPresent()) {
+                return executor.get();
+            }
+        }
+        return boundedExecutor(name, concurrency, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy(),
+                decorator);
+    }
+
+    private ThreadPoolTaskExecutor boundedExecutor(String name, int concurrency, int queueCapacity,
+                                                   RejectedExecutionHandler rejectionPolicy) {
+        return boundedExecutor(name, concurrency, queueCapacity, rejectionPolicy,
+                taskExecutorMetrics.taskDecorator(name));
+    }
+
+    private ThreadPoolTaskExecutor boundedExecutor(String name, int concurrency, int queueCapacity,
+                                                   RejectedExecutionHandler rejectionPolicy,
+                                                   TaskDecorator decorator) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setTaskDecorator(decorator);
+        executor.setRejectedExecutionHandler(taskExecutorMetrics.rejectedExecutionHandler(name, rejectionPolicy));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(AWAIT_TERMINATION_SECONDS);
+        return executor;
+    }
+
+    private static Runnable containFailure(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Already logged and counted by the task decorator of the executor
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long tasks run on the shared executors take, whether they failed and how often an executor was
+ * saturated, tagged by executor name. Pool and queue usage is published by Spring Boot as the executor metrics.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskExecutorMetrics {
+
+    static final String TASK_TIMER = "executor.task";
+    static final String REJECTED_COUNTER = "executor.task.rejected";
+    static final String IN_FLIGHT_GAUGE = "downstream.calls.in-flight";
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Times each task and logs tasks that fail. Failures of submitted tasks are held in their future instead, so
+     * only tasks passed to execute can be counted as failed.
+     */
+    public TaskDecorator taskDecorator(String executorName) {
+        return task -> () -> {
+            var start = System.nanoTime();
+            var outcome = SUCCESS;
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                outcome = FAILURE;
+                log.error("Task failed on executor " + executorName, e);
+                throw e;
+            } finally {
+                Timer.builder(TASK_TIMER)
+                        .description("Time spent running tasks on a shared executor")
+                        .tag("name", executorName)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * Counts tasks the executor could not queue before handing them to the rejection policy.
+     */
+    public RejectedExecutionHandler rejectedExecutionHandler(String executorName, RejectedExecutionHandler policy) {
+        var rejected = Counter.builder(REJECTED_COUNTER)
+                .description("Tasks that did not fit in the queue of a shared executor")
+                .tag("name", executorName)
+                .register(meterRegistry);
+        return (task, executor) -> {
+            rejected.increment();
+            log.warn("Executor " + executorName + " is saturated");
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * Publishes how many calls the limiter currently lets through to its downstream.
+     */
+    public ConcurrencyLimiter register(ConcurrencyLimiter limiter) {
+        Gauge.builder(IN_FLIGHT_GAUGE, limiter, ConcurrencyLimiter::getInFlight)
+                .description("Calls in flight to a downstream service from the shared executors")
+                .tag("downstream", limiter.getDownstream())
+                .register(meterRegistry);
+        return limiter;
+    }
+}
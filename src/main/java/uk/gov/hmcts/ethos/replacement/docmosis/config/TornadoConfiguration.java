@@ -10,4 +10,26 @@ import org.springframework.stereotype.Component;
 public class TornadoConfiguration {
     private String url;
     private String accessKey;
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 50;
+    private int connectTimeout = 10_000;
+    private int connectionRequestTimeout = 10_000;
+    private int readTimeout = 120_000;
+    private long keepAlive = 30_000;
+    private int spoolThreshold = 2_097_152;
+    private int maxConcurrentRenders = 20;
+    private long bulkheadMaxWait = 10_000;
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 100;
+        private long slowCallDurationThreshold = 60_000;
+        private long waitDurationInOpenState = 30_000;
+        private int permittedCallsInHalfOpenState = 3;
+    }
 }
@@ -0,0 +1,47 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled HTTP client shared by all Tornado (Docmosis) render calls so that connections are kept alive
+ * and reused instead of being opened and torn down for every document.
+ */
+@Configuration
+public class TornadoHttpClientConfiguration {
+
+    @Bean(name = "tornadoHttpClient")
+    public CloseableHttpClient tornadoHttpClient(TornadoConfiguration tornadoConfiguration) {
+        var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(tornadoConfiguration.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(tornadoConfiguration.getMaxConnectionsPerRoute());
+
+        var config = RequestConfig.custom()
+            .setConnectTimeout(tornadoConfiguration.getConnectTimeout())
+            .setConnectionRequestTimeout(tornadoConfiguration.getConnectionRequestTimeout())
+            .setSocketTimeout(tornadoConfiguration.getReadTimeout())
+            .build();
+
+        var keepAlive = tornadoConfiguration.getKeepAlive();
+        return HttpClientBuilder
+            .create()
+            .useSystemProperties()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(config)
+            .setKeepAliveStrategy((response, context) -> {
+                var serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+                return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+            .build();
+    }
+}
@@ -0,0 +1,54 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts a new virtual thread for every task. Virtual threads need JDK 21, so the executor is looked up at runtime
+ * and is only available when the application runs on a JVM that supports them.
+ */
+@Slf4j
+public final class VirtualThreadTaskExecutor extends ConcurrentTaskExecutor implements DisposableBean {
+
+    private final ExecutorService executorService;
+    private final int awaitTerminationSeconds;
+
+    private VirtualThreadTaskExecutor(ExecutorService executorService, TaskDecorator taskDecorator,
+                                      int awaitTerminationSeconds) {
+        super(executorService);
+        this.executorService = executorService;
+        this.awaitTerminationSeconds = awaitTerminationSeconds;
+        setTaskDecorator(taskDecorator);
+    }
+
+    /**
+     * Returns a virtual thread per task executor, or an empty optional when the JVM does not support virtual threads.
+     */
+    public static Optional<VirtualThreadTaskExecutor> create(TaskDecorator taskDecorator,
+                                                             int awaitTerminationSeconds) {
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            var executorService = (ExecutorService) factory.invoke(null);
+            return Optional.of(new VirtualThreadTaskExecutor(executorService, taskDecorator,
+                    awaitTerminationSeconds));
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported by Java " + Runtime.version());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executorService.shutdown();
+        if (!executorService.awaitTermination(awaitTerminationSeconds, TimeUnit.SECONDS)) {
+            executorService.shutdownNow();
+        }
+    }
+}
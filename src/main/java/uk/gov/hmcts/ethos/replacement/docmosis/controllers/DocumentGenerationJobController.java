@@ -0,0 +1,57 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJob;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.VerifyTokenService;
+
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class DocumentGenerationJobController {
+
+    private static final String INVALID_TOKEN = "Invalid Token {}";
+
+    private final DocumentGenerationJobService documentGenerationJobService;
+    private final VerifyTokenService verifyTokenService;
+
+    @GetMapping(value = "/documentGenerationJob/{jobId}", produces = APPLICATION_JSON_VALUE)
+    @Operation(summary = "returns the status and, once complete, the document of an asynchronous generation job.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Accessed successfully",
+            content = {
+                @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = DocumentGenerationJob.class))
+            }),
+        @ApiResponse(responseCode = "404", description = "Job not found"),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    public ResponseEntity<DocumentGenerationJob> getDocumentGenerationJob(
+            @PathVariable String jobId,
+            @RequestHeader(value = "Authorization") String userToken) {
+        log.info("GET DOCUMENT GENERATION JOB ---> " + jobId);
+
+        if (!verifyTokenService.verifyTokenSignature(userToken)) {
+            log.error(INVALID_TOKEN, userToken);
+            return ResponseEntity.status(FORBIDDEN.value()).build();
+        }
+
+        return documentGenerationJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -26,6 +27,7 @@ import uk.gov.hmcts.ethos.replacement.docmosis.reports.hearingstojudgments.Heari
 import uk.gov.hmcts.ethos.replacement.docmosis.reports.nochangeincurrentposition.NoPositionChangeReportData;
 import uk.gov.hmcts.ethos.replacement.docmosis.reports.respondentsreport.RespondentsReportData;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.DefaultValuesReaderService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.GenerateReportService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.ListingService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.PrintHearingListService;
@@ -34,6 +36,7 @@ import uk.gov.hmcts.ethos.replacement.docmosis.service.VerifyTokenService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -57,6 +60,8 @@ public class ListingGenerationController {
     private final VerifyTokenService verifyTokenService;
     private final PrintHearingListService printHearingListService;
     private final GenerateReportService generateReportService;
+    private final DocumentGenerationJobService documentGenerationJobService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(value = "/listingCaseCreation", consumes = APPLICATION_JSON_VALUE)
     @Operation(summary = "handles logic related to the creation of listing cases.")
@@ -79,6 +84,7 @@ public class ListingGenerationController {
         }
 
         var listingData = listingService.listingCaseCreation(listingRequest.getCaseDetails());
+        documentGenerationJobService.resolvePendingMarkUp(listingData);
 
         return ResponseEntity.ok(ListingCallbackResponse.builder()
                 .data(listingData)
@@ -107,6 +113,7 @@ public class ListingGenerationController {
 
         List<String> errors = new ArrayList<>();
         var caseData = ccdRequest.getCaseDetails().getCaseData();
+        documentGenerationJobService.resolvePendingMarkUp(caseData);
 
         if (ListingHelper.isListingRangeValid(ccdRequest.getCaseDetails().getCaseData()
                 .getPrintHearingDetails(), errors)) {
@@ -151,6 +158,7 @@ public class ListingGenerationController {
             log.info("Post Default values loaded: " + defaultValues);
             listingData = defaultValuesReaderService.getListingData(listingData, defaultValues);
         }
+        documentGenerationJobService.resolvePendingMarkUp(listingData);
 
         return getListingCallbackRespEntityErrors(errors, listingData);
     }
@@ -179,8 +187,20 @@ public class ListingGenerationController {
         var listingData = ccdRequest.getCaseDetails().getCaseData().getPrintHearingCollection();
         if (listingData.getListingCollection() != null && !listingData.getListingCollection().isEmpty()) {
             listingData = listingService.setCourtAddressFromCaseData(ccdRequest.getCaseDetails().getCaseData());
-            var documentInfo = listingService.processHearingDocument(
-                    listingData, ccdRequest.getCaseDetails().getCaseTypeId(), userToken);
+            var caseTypeId = ccdRequest.getCaseDetails().getCaseTypeId();
+            // The job renders in the background while the case data is returned, so it is given its own copy
+            var pendingMarkUp = documentGenerationJobService.isAsyncEnabled()
+                    ? submitDocumentJob(ccdRequest.getCaseDetails().getCaseId(),
+                            objectMapper.convertValue(listingData, ListingData.class), caseTypeId, userToken)
+                    : Optional.<String>empty();
+            if (pendingMarkUp.isPresent()) {
+                ccdRequest.getCaseDetails().getCaseData().setDocMarkUp(pendingMarkUp.get());
+                return ResponseEntity.ok(CCDCallbackResponse.builder()
+                        .data(ccdRequest.getCaseDetails().getCaseData())
+                        .build());
+            }
+            var documentInfo = listingService.processHearingDocument(listingData, caseTypeId,
+                    ccdRequest.getCaseDetails().getCaseId(), userToken);
             ccdRequest.getCaseDetails().getCaseData().setDocMarkUp(documentInfo.getMarkUp());
             return ResponseEntity.ok(CCDCallbackResponse.builder()
                     .data(ccdRequest.getCaseDetails().getCaseData())
@@ -216,9 +236,11 @@ public class ListingGenerationController {
             return ResponseEntity.status(FORBIDDEN.value()).build();
         }
 
+        var caseData = ccdRequest.getCaseDetails().getCaseData();
+        documentGenerationJobService.resolvePendingMarkUp(caseData);
         return ResponseEntity.ok(CCDCallbackResponse.builder()
-                .data(ccdRequest.getCaseDetails().getCaseData())
-                .confirmation_header(GENERATED_DOCUMENT_URL + ccdRequest.getCaseDetails().getCaseData().getDocMarkUp())
+                .data(caseData)
+                .confirmation_header(GENERATED_DOCUMENT_URL + caseData.getDocMarkUp())
                 .build());
     }
 
@@ -240,6 +262,7 @@ public class ListingGenerationController {
         }
 
         generateReportService.initGenerateReport(listingRequest.getCaseDetails());
+        documentGenerationJobService.resolvePendingMarkUp(listingRequest.getCaseDetails().getCaseData());
 
         return ResponseEntity.ok(ListingCallbackResponse.builder()
                 .data(listingRequest.getCaseDetails().getCaseData())
@@ -268,11 +291,13 @@ public class ListingGenerationController {
 
         var listingData = reportDataService.generateReportData(listingRequest.getCaseDetails(), userToken);
 
-        return getResponseEntity(listingData, listingRequest.getCaseDetails().getCaseTypeId(), userToken);
+        return getResponseEntity(listingRequest.getCaseDetails().getCaseId(), listingData,
+                listingRequest.getCaseDetails().getCaseTypeId(), userToken);
 
     }
 
-    private ResponseEntity<ListingCallbackResponse> getResponseEntity(ListingData listingData,
+    private ResponseEntity<ListingCallbackResponse> getResponseEntity(String caseId,
+                                                                      ListingData listingData,
                                                                       String caseTypeId,
                                                                       String userToken) {
         List<String> errorsList = new ArrayList<>();
@@ -280,7 +305,19 @@ public class ListingGenerationController {
         if (hasListings(listingData)
                 || (isAllowedReportType(listingData)
                 && (hasServedClaims(listingData) || hasSummaryAndDetails(listingData)))) {
-            var documentInfo = getDocumentInfo(listingData, caseTypeId, userToken);
+            if (documentGenerationJobService.isAsyncEnabled()) {
+                // Report data is held in fields that are not serialised, so the job keeps the original and the
+                // response is built from a copy taken before the job starts
+                var responseData = objectMapper.convertValue(listingData, ListingData.class);
+                var pendingMarkUp = submitDocumentJob(caseId, listingData, caseTypeId, userToken);
+                if (pendingMarkUp.isPresent()) {
+                    responseData.setDocMarkUp(pendingMarkUp.get());
+                    return ResponseEntity.ok(ListingCallbackResponse.builder()
+                            .data(responseData)
+                            .build());
+                }
+            }
+            var documentInfo = getDocumentInfo(caseId, listingData, caseTypeId, userToken);
             updateListingDocMarkUp(listingData, documentInfo);
             return ResponseEntity.ok(ListingCallbackResponse.builder()
                     .data(listingData)
@@ -322,8 +359,15 @@ public class ListingGenerationController {
         listingData.setDocMarkUp(documentInfo.getMarkUp());
     }
 
-    private DocumentInfo getDocumentInfo(ListingData listingData, String caseTypeId, String userToken) {
-        return listingService.processHearingDocument(listingData, caseTypeId, userToken);
+    private DocumentInfo getDocumentInfo(String caseId, ListingData listingData, String caseTypeId,
+                                         String userToken) {
+        return listingService.processHearingDocument(listingData, caseTypeId, caseId, userToken);
+    }
+
+    private Optional<String> submitDocumentJob(String caseId, ListingData listingData, String caseTypeId,
+                                               String userToken) {
+        return documentGenerationJobService.submitIfEnabled(caseId, caseTypeId, listingData.getDocumentName(),
+            () -> getDocumentInfo(caseId, listingData, caseTypeId, userToken));
     }
 
     @PostMapping(value = "/generateHearingDocument", consumes = APPLICATION_JSON_VALUE)
@@ -349,7 +393,7 @@ public class ListingGenerationController {
         var listingData = listingRequest.getCaseDetails().getCaseData();
         var caseTypeId = listingRequest.getCaseDetails().getCaseTypeId();
 
-        return getResponseEntity(listingData, caseTypeId, userToken);
+        return getResponseEntity(listingRequest.getCaseDetails().getCaseId(), listingData, caseTypeId, userToken);
     }
 
     @PostMapping(value = "/generateHearingDocumentConfirmation", consumes = APPLICATION_JSON_VALUE)
@@ -373,10 +417,11 @@ public class ListingGenerationController {
             return ResponseEntity.status(FORBIDDEN.value()).build();
         }
 
+        var listingData = listingRequest.getCaseDetails().getCaseData();
+        documentGenerationJobService.resolvePendingMarkUp(listingData);
         return ResponseEntity.ok(ListingCallbackResponse.builder()
-                .data(listingRequest.getCaseDetails().getCaseData())
-                .confirmation_header(GENERATED_DOCUMENT_URL
-                        + listingRequest.getCaseDetails().getCaseData().getDocMarkUp())
+                .data(listingData)
+                .confirmation_header(GENERATED_DOCUMENT_URL + listingData.getDocMarkUp())
                 .build());
     }
 
@@ -399,6 +444,7 @@ public class ListingGenerationController {
 
         var caseData = ccdRequest.getCaseDetails().getCaseData();
         printHearingListService.initPrintHearingLists(caseData);
+        documentGenerationJobService.resolvePendingMarkUp(caseData);
 
         return getCallbackRespEntityNoErrors(caseData);
     }
@@ -0,0 +1,28 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "document_generation_job")
+@Data
+public class DocumentGenerationJob {
+    @Id
+    private String id;
+    private String caseId;
+    private String caseTypeId;
+    @Enumerated(EnumType.STRING)
+    private DocumentGenerationJobStatus status;
+    private String documentName;
+    private String documentUrl;
+    private String markUp;
+    private String errorMessage;
+    private LocalDateTime createdDate;
+    private LocalDateTime completedDate;
+}
@@ -0,0 +1,7 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration;
+
+public enum DocumentGenerationJobStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
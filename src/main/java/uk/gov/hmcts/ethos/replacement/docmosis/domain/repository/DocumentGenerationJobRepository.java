@@ -0,0 +1,9 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.domain.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJob;
+
+@Repository
+public interface DocumentGenerationJobRepository extends JpaRepository<DocumentGenerationJob, String> {
+}
@@ -0,0 +1,29 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+import org.elasticsearch.index.query.TermsQueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.util.List;
+
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static uk.gov.hmcts.ecm.common.model.helper.Constants.MAX_ES_SIZE;
+
+public class CaseReferencesElasticSearchQuery {
+
+    private CaseReferencesElasticSearchQuery() {
+        // Access through static methods
+    }
+
+    /**
+     * Searches the cases with the given ethos case references, returning only the given source fields of each.
+     */
+    public static String create(List<String> ethosCaseReferences, List<String> sourceFields) {
+        var boolQueryBuilder = boolQuery()
+                .filter(new TermsQueryBuilder("data.ethosCaseReference.keyword", ethosCaseReferences));
+
+        return new SearchSourceBuilder()
+                .size(MAX_ES_SIZE)
+                .fetchSource(sourceFields.toArray(new String[0]), null)
+                .query(boolQueryBuilder).toString();
+    }
+}
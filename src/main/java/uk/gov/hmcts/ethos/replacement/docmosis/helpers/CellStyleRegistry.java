@@ -0,0 +1,66 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Creates each cell style used by the multiple spreadsheets and schedules once per workbook, so that every cell
+ * with the same formatting shares one style and font instead of adding new ones to the workbook.
+ */
+public class CellStyleRegistry {
+
+    public enum Style {
+        LOCKED, UNLOCKED, LEAD, HEADER_1, HEADER_2, HEADER_3, ROW
+    }
+
+    private final Workbook workbook;
+    private final Map<Style, CellStyle> cellStyles = new EnumMap<>(Style.class);
+
+    public CellStyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    public CellStyle get(Style style) {
+        return cellStyles.computeIfAbsent(style, this::createCellStyle);
+    }
+
+    private CellStyle createCellStyle(Style style) {
+        switch (style) {
+            case LOCKED:
+                return createLockingCellStyle(IndexedColors.BLACK.getIndex(), true);
+            case UNLOCKED:
+                return createLockingCellStyle(IndexedColors.BLUE.getIndex(), false);
+            case LEAD:
+                var cellStyle = createLockingCellStyle(IndexedColors.WHITE.getIndex(), true);
+                cellStyle.setFillForegroundColor(IndexedColors.GREEN.getIndex());
+                cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                return cellStyle;
+            case HEADER_1:
+                return MultiplesSchedulePrinter.getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 14, true);
+            case HEADER_2:
+                return MultiplesSchedulePrinter.getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 12, true);
+            case HEADER_3:
+                return MultiplesSchedulePrinter.getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 10, true);
+            case ROW:
+                return MultiplesSchedulePrinter.getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 10, false);
+            default:
+                throw new IllegalArgumentException("Unknown cell style " + style);
+        }
+    }
+
+    private CellStyle createLockingCellStyle(short color, boolean locked) {
+        var cellStyle = workbook.createCellStyle();
+        var font = workbook.createFont();
+        font.setColor(color);
+        cellStyle.setLocked(locked);
+        cellStyle.setAlignment(HorizontalAlignment.CENTER);
+        cellStyle.setFont(font);
+        return cellStyle;
+    }
+}
@@ -61,6 +61,8 @@ public class DocumentHelper {
                                                      VenueAddressReaderService venueAddressReaderService) {
         var sb = new StringBuilder();
         String templateName = getTemplateName(correspondenceType, correspondenceScotType);
+        var englandWalesSchema = TemplateFieldSchema.forEnglandWales(getEWSectionName(correspondenceType));
+        var scotlandSchema = TemplateFieldSchema.forScotland(getScotSectionName(correspondenceScotType));
 
         // Start building the instruction
         sb.append("{\n");
@@ -83,29 +85,13 @@ public class DocumentHelper {
             sb.append(getRespondentData(caseData));
             sb.append(getHearingData(caseData, caseTypeId, correspondenceType,
                     correspondenceScotType, venueAddressReaderService));
-            sb.append(getCorrespondenceData(correspondenceType));
-            sb.append(getCorrespondenceScotData(correspondenceScotType));
+            sb.append(englandWalesSchema.getCorrespondenceField());
+            sb.append(scotlandSchema.getCorrespondenceField());
             sb.append(getCourtData(caseData, allocatedCourtAddress));
         }
 
-        sb.append("\"i").append(getEWSectionName(correspondenceType)
-                .replace(".", "_"))
-                .append("_enhmcts\":\"").append("[userImage:").append("enhmcts.png]").append(NEW_LINE);
-        sb.append("\"i").append(getEWSectionName(correspondenceType)
-                .replace(".", "_"))
-                .append("_enhmcts1\":\"").append("[userImage:").append("enhmcts.png]").append(NEW_LINE);
-        sb.append("\"i").append(getEWSectionName(correspondenceType)
-                .replace(".", "_"))
-                .append("_enhmcts2\":\"").append("[userImage:").append("enhmcts.png]").append(NEW_LINE);
-        sb.append("\"iScot").append(getScotSectionName(correspondenceScotType)
-                .replace(".", "_"))
-                .append("_schmcts\":\"").append("[userImage:").append("schmcts.png]").append(NEW_LINE);
-        sb.append("\"iScot").append(getScotSectionName(correspondenceScotType)
-                .replace(".", "_"))
-                .append("_schmcts1\":\"").append("[userImage:").append("schmcts.png]").append(NEW_LINE);
-        sb.append("\"iScot").append(getScotSectionName(correspondenceScotType)
-                .replace(".", "_"))
-                .append("_schmcts2\":\"").append("[userImage:").append("schmcts.png]").append(NEW_LINE);
+        sb.append(englandWalesSchema.getImageFields());
+        sb.append(scotlandSchema.getImageFields());
 
         String userName = nullCheck(userDetails.getFirstName() + " " + userDetails.getLastName());
         sb.append("\"Clerk\":\"").append(nullCheck(userName)).append(NEW_LINE);
@@ -372,10 +358,10 @@ public class DocumentHelper {
                         && (respondentSumTypeItem.getValue().getResponseContinue() == null
                         || respondentSumTypeItem.getValue().getResponseContinue().equals(YES))
                         && !respondentSumTypeItem.getValue().getRespondentName().equals(firstRespondentName))
-                .map(respondentSumTypeItem -> atomicInteger.getAndIncrement() + ". "
-                        + respondentSumTypeItem.getValue().getRespondentName())
+                .map(respondentSumTypeItem -> nullCheck(atomicInteger.getAndIncrement() + ". "
+                        + respondentSumTypeItem.getValue().getRespondentName()))
                 .collect(Collectors.toList());
-        sb.append("\"resp_others\":\"").append(nullCheck(String.join("\\n", respOthers))).append(NEW_LINE);
+        sb.append("\"resp_others\":\"").append(String.join("\\n", respOthers)).append(NEW_LINE);
         return sb;
     }
 
@@ -390,10 +376,10 @@ public class DocumentHelper {
                         || respondentSumTypeItem.getValue().getResponseStruckOut().equals(NO)
                         && (respondentSumTypeItem.getValue().getResponseContinue() == null
                         || YES.equals(respondentSumTypeItem.getValue().getResponseContinue())))
-                .map(respondentSumTypeItem -> (size > 1 ? atomicInteger.getAndIncrement() + ". " : "")
-                        + getRespondentAddressET3(respondentSumTypeItem.getValue()))
+                .map(respondentSumTypeItem -> nullCheck((size > 1 ? atomicInteger.getAndIncrement() + ". " : "")
+                        + getRespondentAddressET3(respondentSumTypeItem.getValue())))
                 .collect(Collectors.toList());
-        sb.append("\"resp_address\":\"").append(nullCheck(String.join("\\n", respAddressList)))
+        sb.append("\"resp_address\":\"").append(String.join("\\n", respAddressList))
                 .append(NEW_LINE);
         return sb;
     }
@@ -662,28 +648,6 @@ public class DocumentHelper {
         return "";
     }
 
-    private static StringBuilder getCorrespondenceData(CorrespondenceType correspondence) {
-        log.info("Correspondence data");
-        String sectionName = getEWSectionName(correspondence);
-        var sb = new StringBuilder();
-        if (!sectionName.equals("")) {
-            sb.append("\"").append("t").append(sectionName.replace(".", "_"))
-                    .append("\":\"").append("true").append(NEW_LINE);
-        }
-        return sb;
-    }
-
-    private static StringBuilder getCorrespondenceScotData(CorrespondenceScotType correspondenceScotType) {
-        log.info("Correspondence scot data");
-        String scotSectionName = getScotSectionName(correspondenceScotType);
-        var sb = new StringBuilder();
-        if (!scotSectionName.equals("")) {
-            sb.append("\"").append("t_Scot_").append(scotSectionName.replace(".", "_"))
-                    .append("\":\"").append("true").append(NEW_LINE);
-        }
-        return sb;
-    }
-
     private static StringBuilder getCourtData(CaseData caseData, DefaultValues allocatedCourtAddress) {
         var sb = new StringBuilder();
         log.info("Court data");
@@ -0,0 +1,97 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+/**
+ * Ethos case reference such as 1800074/2020, parsed once into its office prefix, number and year and packed into a
+ * single long key. References order by year, then office, then number, comparing the key rather than the text.
+ * References that cannot be parsed order after every valid reference, by their text.
+ */
+public final class EthosCaseRef implements Comparable<EthosCaseRef> {
+
+    private static final int OFFICE_DIGITS = 2;
+    private static final int MAX_NUMBER_DIGITS = 12;
+    private static final int MAX_YEAR_DIGITS = 4;
+    private static final int OFFICE_SHIFT = 40;
+    private static final int YEAR_SHIFT = 48;
+    private static final long UNPARSED_KEY = Long.MAX_VALUE;
+
+    private final String value;
+    private final long key;
+
+    private EthosCaseRef(String value, long key) {
+        this.value = value;
+        this.key = key;
+    }
+
+    public static EthosCaseRef parse(String value) {
+        var separator = value.indexOf('/');
+        var numberDigits = separator - OFFICE_DIGITS;
+        var yearLength = value.length() - separator - 1;
+        if (separator <= OFFICE_DIGITS || numberDigits > MAX_NUMBER_DIGITS || yearLength < 1
+                || yearLength > MAX_YEAR_DIGITS) {
+            return new EthosCaseRef(value, UNPARSED_KEY);
+        }
+        var office = parseDigits(value, 0, OFFICE_DIGITS);
+        var number = parseDigits(value, OFFICE_DIGITS, separator);
+        var year = parseDigits(value, separator + 1, value.length());
+        if (office < 0 || number < 0 || year < 0) {
+            return new EthosCaseRef(value, UNPARSED_KEY);
+        }
+        return new EthosCaseRef(value, year << YEAR_SHIFT | office << OFFICE_SHIFT | number);
+    }
+
+    private static long parseDigits(String value, int start, int end) {
+        long result = 0;
+        for (var i = start; i < end; i++) {
+            var digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    public boolean isParsed() {
+        return key != UNPARSED_KEY;
+    }
+
+    public int getOfficePrefix() {
+        return isParsed() ? (int) (key >>> OFFICE_SHIFT & 0xFF) : -1;
+    }
+
+    public long getNumber() {
+        return isParsed() ? key & ((1L << OFFICE_SHIFT) - 1) : -1;
+    }
+
+    public int getYear() {
+        return isParsed() ? (int) (key >>> YEAR_SHIFT) : -1;
+    }
+
+    /**
+     * Returns the packed year, office and number, which orders the same way as the references.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    @Override
+    public int compareTo(EthosCaseRef other) {
+        var result = Long.compare(key, other.key);
+        return result != 0 ? result : value.compareTo(other.value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof EthosCaseRef && value.equals(((EthosCaseRef) other).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
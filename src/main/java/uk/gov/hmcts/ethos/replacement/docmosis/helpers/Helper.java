@@ -1,5 +1,6 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import lombok.extern.slf4j.Slf4j;
 import uk.gov.hmcts.ecm.common.helpers.UtilHelper;
 import uk.gov.hmcts.ecm.common.model.bulk.types.DynamicFixedListType;
@@ -20,7 +21,6 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.BF_ACTION_ACAS;
@@ -50,16 +50,27 @@ public class Helper {
     public static final String HEARING_CREATION_DAY_ERROR = "A new day for a hearing can "
             + "only be added from the List Hearing menu item";
 
+    private static final JsonStringEncoder JSON_STRING_ENCODER = JsonStringEncoder.getInstance();
+
     private Helper() {
     }
 
     public static String nullCheck(String value) {
-        Optional<String> opt = Optional.ofNullable(value);
-        if (opt.isPresent()) {
-            return value.replaceAll("\"", "'");
-        } else {
+        if (value == null) {
             return "";
         }
+        var quoted = value.replace('"', '\'');
+        return needsJsonEscaping(quoted) ? new String(JSON_STRING_ENCODER.quoteAsString(quoted)) : quoted;
+    }
+
+    private static boolean needsJsonEscaping(String value) {
+        for (var i = 0; i < value.length(); i++) {
+            var ch = value.charAt(i);
+            if (ch < ' ' || ch == '\\') {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static SignificantItem generateSignificantItem(DocumentInfo documentInfo, List<String> errors) {
@@ -51,6 +51,20 @@ public class LabelsHelper {
     public static final String ADDRESS_LABELS_RESULT_SELECTION_ERROR =
             "There are no address labels associated with your selection";
 
+    /**
+     * Case data fields read into {@link LabelPayloadES}, the only part of each case a label search returns.
+     */
+    public static final List<String> LABEL_SOURCE_FIELDS = List.of(
+            "data.ethosCaseReference",
+            "data.claimantTypeOfClaimant",
+            "data.claimantCompany",
+            "data.claimantIndType",
+            "data.claimantType",
+            "data.claimantRepresentedQuestion",
+            "data.representativeClaimantType",
+            "data.respondentCollection",
+            "data.repCollection");
+
     private LabelsHelper() {
     }
 
@@ -395,6 +395,7 @@ public class ListingHelper {
 
     private static StringBuilder getCaseCauseListByDate(ListingData listingData, String caseType) {
         var sb = new StringBuilder();
+        var officeFragment = getOfficeFragment(listingData, caseType);
         Iterator<Map.Entry<String, List<ListingTypeItem>>> entries = getEntriesByDate(sb, listingData);
         while (entries.hasNext()) {
             Map.Entry<String, List<ListingTypeItem>> listingEntry = entries.next();
@@ -402,7 +403,7 @@ public class ListingHelper {
             sb.append("\"case_total\":\"").append(listingEntry.getValue().size()).append(NEW_LINE);
             sb.append(LISTING_NEWLINE);
             for (var i = 0; i < listingEntry.getValue().size(); i++) {
-                sb.append(getListingTypeRow(listingEntry.getValue().get(i).getValue(), caseType, listingData));
+                sb.append(getListingTypeRow(listingEntry.getValue().get(i).getValue(), officeFragment));
                 if (i != listingEntry.getValue().size() - 1) {
                     sb.append(",\n");
                 }
@@ -500,6 +501,7 @@ public class ListingHelper {
     private static StringBuilder getListByRoomOrVenue(List<ListingTypeItem> collection, ListingData listingData,
                                                       String caseType, boolean byRoom) {
         var sb = new StringBuilder();
+        var officeFragment = getOfficeFragment(listingData, caseType);
         TreeMap<String, List<ListingTypeItem>> sortedMap = byRoom
                 ? getListHearingsByRoomWithNotAllocated(collection)
                 : getListHearingsByVenueWithNotAllocated(listingData);
@@ -511,7 +513,7 @@ public class ListingHelper {
             sb.append("{\"").append(hearingRoomOrVenue).append("\":\"").append(listingEntry.getKey()).append(NEW_LINE);
             sb.append(LISTING_NEWLINE);
             for (var i = 0; i < listingEntry.getValue().size(); i++) {
-                sb.append(getListingTypeRow(listingEntry.getValue().get(i).getValue(), caseType, listingData));
+                sb.append(getListingTypeRow(listingEntry.getValue().get(i).getValue(), officeFragment));
                 if (i != listingEntry.getValue().size() - 1) {
                     sb.append(",\n");
                 }
@@ -528,10 +530,11 @@ public class ListingHelper {
 
     private static StringBuilder getCaseCauseList(ListingData listingData, String caseType) {
         List<ListingTypeItem> listingTypeItems = listingData.getListingCollection();
+        var officeFragment = getOfficeFragment(listingData, caseType);
         var sb = new StringBuilder();
         sb.append(LISTING_NEWLINE);
         for (var i = 0; i < listingTypeItems.size(); i++) {
-            sb.append(getListingTypeRow(listingTypeItems.get(i).getValue(), caseType, listingData));
+            sb.append(getListingTypeRow(listingTypeItems.get(i).getValue(), officeFragment));
             if (i != listingTypeItems.size() - 1) {
                 sb.append(",\n");
             }
@@ -540,13 +543,10 @@ public class ListingHelper {
         return sb;
     }
 
-    private static StringBuilder getListingTypeRow(ListingType listingType, String caseType, ListingData listingData) {
+    private static StringBuilder getListingTypeRow(ListingType listingType, String officeFragment) {
         var sb = new StringBuilder();
         sb.append("{\"Judge\":\"").append(nullCheck(extractHearingJudgeName(listingType))).append(NEW_LINE);
-        sb.append(getCourtListingData(listingData));
-        log.info("Court listing data");
-        sb.append(getLogo(caseType));
-        log.info("Logo listing data");
+        sb.append(officeFragment);
         sb.append("\"ERMember\":\"").append(nullCheck(listingType.getHearingERMember())).append(NEW_LINE);
         sb.append("\"EEMember\":\"").append(nullCheck(listingType.getHearingEEMember())).append(NEW_LINE);
         sb.append("\"Case_No\":\"").append(nullCheck(listingType.getElmoCaseReference())).append(NEW_LINE);
@@ -600,6 +600,11 @@ public class ListingHelper {
         return nullCheck(listingType.getRespondentOthers()).replace(", ", "\\n");
     }
 
+    // Court details and logo repeated on every listing row, built once per listing
+    private static String getOfficeFragment(ListingData listingData, String caseType) {
+        return getCourtListingData(listingData).append(getLogo(caseType)).toString();
+    }
+
     private static StringBuilder getCourtListingData(ListingData listingData) {
         var sb = new StringBuilder();
         if (listingData.getTribunalCorrespondenceAddress() != null) {
@@ -1,7 +1,6 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import uk.gov.hmcts.ecm.common.model.bulk.items.CaseIdTypeItem;
 import uk.gov.hmcts.ecm.common.model.bulk.types.CaseType;
 import uk.gov.hmcts.ecm.common.model.helper.SchedulePayload;
@@ -11,8 +10,6 @@ import uk.gov.hmcts.ecm.common.model.multiples.items.CaseMultipleTypeItem;
 import uk.gov.hmcts.ecm.common.model.multiples.items.SubMultipleTypeItem;
 import uk.gov.hmcts.ecm.common.model.multiples.types.SubMultipleType;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -315,8 +312,8 @@ public class MultiplesHelper {
         }
     }
 
-    public static SortedMap<String, SortedMap<String, Object>> createCollectionOrderedByCaseRef(List<?> list) {
-        SortedMap<String, SortedMap<String, Object>> orderedCollection = new TreeMap<>();
+    public static SortedMap<EthosCaseRef, Object> createCollectionOrderedByCaseRef(List<?> list) {
+        SortedMap<EthosCaseRef, Object> orderedCollection = new TreeMap<>();
 
         for (Object item : list) {
             String ethosCaseRef;
@@ -337,29 +334,9 @@ public class MultiplesHelper {
         return orderedCollection;
     }
 
-    public static void addObjectToCollectionOrderedByCaseRef(SortedMap<String, SortedMap<String, Object>> collection,
+    public static void addObjectToCollectionOrderedByCaseRef(SortedMap<EthosCaseRef, Object> collection,
                                                              Object item, String ethosCaseRef) {
-        var caseRefParts = ethosCaseRef.split("/");
-
-        if (collection.containsKey(caseRefParts[1])) {
-            collection.get(caseRefParts[1]).put(caseRefParts[0], item);
-        } else {
-            collection.put(caseRefParts[1], new TreeMap<>(Map.of(caseRefParts[0], item)));
-        }
-    }
-
-    public static byte[] writeExcelFileToByteArray(XSSFWorkbook workbook) {
-        var bos = new ByteArrayOutputStream();
-
-        try {
-            workbook.write(bos);
-            workbook.close();
-        } catch (IOException e) {
-            log.error("Error generating the excel");
-            throw new RuntimeException("Error generating the excel", e);
-        }
-
-        return bos.toByteArray();
+        collection.put(EthosCaseRef.parse(ethosCaseRef), item);
     }
 
 }
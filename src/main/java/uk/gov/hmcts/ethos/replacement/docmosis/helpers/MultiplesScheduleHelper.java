@@ -14,7 +14,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.MULTIPLE_SCHEDULE_CONFIG;
@@ -33,6 +32,17 @@ public class MultiplesScheduleHelper {
     public static final String TOWN = "Town";
     public static final String POSTCODE = "PostCode";
 
+    /**
+     * Case data fields read into {@link SchedulePayloadES}, the only part of each case a schedule search returns.
+     */
+    public static final List<String> SCHEDULE_SOURCE_FIELDS = List.of(
+            "data.ethosCaseReference",
+            "data.claimantCompany",
+            "data.claimantIndType",
+            "data.claimantType",
+            "data.positionType",
+            "data.respondentCollection");
+
     private MultiplesScheduleHelper() {
     }
 
@@ -132,26 +142,6 @@ public class MultiplesScheduleHelper {
         return caseIds;
     }
 
-    public static SortedMap<String, SortedMap<String, SortedMap<String, Object>>> getMultipleTreeMap(
-            SortedMap<String, Object> multipleObjectsFiltered, Map<String, SchedulePayload> scheduleEventMap) {
-
-        TreeMap<String, SortedMap<String, SortedMap<String, Object>>> subMultipleTreeMap = new TreeMap<>();
-
-        for (Map.Entry<String, Object> entry : multipleObjectsFiltered.entrySet()) {
-            List<String> caseIds = ((List<String>) entry.getValue());
-            SortedMap<String, SortedMap<String, Object>> scheduleEvents = new TreeMap<>();
-
-            for (String caseId : caseIds) {
-                MultiplesHelper.addObjectToCollectionOrderedByCaseRef(scheduleEvents, scheduleEventMap.get(caseId),
-                        caseId);
-            }
-
-            subMultipleTreeMap.put(entry.getKey(), scheduleEvents);
-        }
-
-        return subMultipleTreeMap;
-    }
-
     public static String generateScheduleDocumentName(MultipleData multipleData) {
         return multipleData.getMultipleReference() + " - " + multipleData.getScheduleDocName() + ".xlsx";
     }
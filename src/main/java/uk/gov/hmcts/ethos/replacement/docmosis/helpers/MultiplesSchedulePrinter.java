@@ -4,10 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
 
 @Slf4j
 public class MultiplesSchedulePrinter {
@@ -15,23 +14,7 @@ public class MultiplesSchedulePrinter {
     private MultiplesSchedulePrinter() {
     }
 
-    public static CellStyle getHeader1CellStyle(XSSFWorkbook workbook) {
-        return getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 14, true);
-    }
-
-    public static CellStyle getHeader2CellStyle(XSSFWorkbook workbook) {
-        return getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 12, true);
-    }
-
-    public static CellStyle getHeader3CellStyle(XSSFWorkbook workbook) {
-        return getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 10, true);
-    }
-
-    public static CellStyle getRowCellStyle(XSSFWorkbook workbook) {
-        return getCellStyle(workbook, IndexedColors.BLACK.getIndex(), 10, false);
-    }
-
-    public static CellStyle getCellStyle(XSSFWorkbook workbook, short color, int height, boolean bold) {
+    public static CellStyle getCellStyle(Workbook workbook, short color, int height, boolean bold) {
 
         CellStyle cellStyle = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -46,7 +29,7 @@ public class MultiplesSchedulePrinter {
 
     }
 
-    public static void adjustColumnSize(XSSFSheet sheet) {
+    public static void adjustColumnSize(Sheet sheet) {
 
         //Adjust the column width to fit the content
         sheet.autoSizeColumn(0);
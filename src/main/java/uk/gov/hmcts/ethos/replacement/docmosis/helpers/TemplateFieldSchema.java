@@ -0,0 +1,61 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static uk.gov.hmcts.ecm.common.model.helper.Constants.NEW_LINE;
+
+/**
+ * Instruction fields of a letter that only depend on the selected template section. They are built once per
+ * section name and reused, so building an instruction only has to fill in the case values.
+ */
+public final class TemplateFieldSchema {
+
+    private static final Map<String, TemplateFieldSchema> ENGLAND_WALES_SCHEMAS = new ConcurrentHashMap<>();
+    private static final Map<String, TemplateFieldSchema> SCOTLAND_SCHEMAS = new ConcurrentHashMap<>();
+
+    private final String correspondenceField;
+    private final String imageFields;
+
+    private TemplateFieldSchema(String correspondenceField, String imageFields) {
+        this.correspondenceField = correspondenceField;
+        this.imageFields = imageFields;
+    }
+
+    public static TemplateFieldSchema forEnglandWales(String sectionName) {
+        return ENGLAND_WALES_SCHEMAS.computeIfAbsent(sectionName, name -> {
+            var key = name.replace(".", "_");
+            return new TemplateFieldSchema(
+                    name.isEmpty() ? "" : "\"t" + key + "\":\"true" + NEW_LINE,
+                    imageField("i" + key + "_enhmcts", "enhmcts.png")
+                            + imageField("i" + key + "_enhmcts1", "enhmcts.png")
+                            + imageField("i" + key + "_enhmcts2", "enhmcts.png"));
+        });
+    }
+
+    public static TemplateFieldSchema forScotland(String sectionName) {
+        return SCOTLAND_SCHEMAS.computeIfAbsent(sectionName, name -> {
+            var key = name.replace(".", "_");
+            return new TemplateFieldSchema(
+                    name.isEmpty() ? "" : "\"t_Scot_" + key + "\":\"true" + NEW_LINE,
+                    imageField("iScot" + key + "_schmcts", "schmcts.png")
+                            + imageField("iScot" + key + "_schmcts1", "schmcts.png")
+                            + imageField("iScot" + key + "_schmcts2", "schmcts.png"));
+        });
+    }
+
+    private static String imageField(String key, String image) {
+        return "\"" + key + "\":\"[userImage:" + image + "]" + NEW_LINE;
+    }
+
+    /**
+     * Returns the flag telling the template which section to print, or an empty string when none is selected.
+     */
+    public String getCorrespondenceField() {
+        return correspondenceField;
+    }
+
+    public String getImageFields() {
+        return imageFields;
+    }
+}
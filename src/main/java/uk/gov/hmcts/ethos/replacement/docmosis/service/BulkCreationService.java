@@ -2,6 +2,8 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ecm.common.client.CcdClient;
 import uk.gov.hmcts.ecm.common.helpers.UtilHelper;
@@ -20,14 +22,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.MULTIPLE_CASE_TYPE;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.NO;
-import static uk.gov.hmcts.ecm.common.model.helper.Constants.NUMBER_THREADS;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.SINGLE_CASE_TYPE;
 
 @Slf4j
@@ -42,14 +41,17 @@ public class BulkCreationService {
     private final BulkSearchService bulkSearchService;
     private final CreateUpdatesBusSender createUpdatesBusSender;
     private final UserService userService;
+    private final TaskExecutor bulkUpdateExecutor;
 
     @Autowired
     public BulkCreationService(CcdClient ccdClient, BulkSearchService bulkSearchService,
-                               CreateUpdatesBusSender createUpdatesBusSender, UserService userService) {
+                               CreateUpdatesBusSender createUpdatesBusSender, UserService userService,
+                               @Qualifier("bulkUpdateExecutor") TaskExecutor bulkUpdateExecutor) {
         this.ccdClient = ccdClient;
         this.bulkSearchService = bulkSearchService;
         this.createUpdatesBusSender = createUpdatesBusSender;
         this.userService = userService;
+        this.bulkUpdateExecutor = bulkUpdateExecutor;
     }
 
     public BulkRequestPayload bulkCreationLogic(BulkDetails bulkDetails, BulkCasesPayload bulkCasesPayload,
@@ -112,12 +114,10 @@ public class BulkCreationService {
     private void createCaseEventsToUpdateMultipleRef(List<SubmitEvent> submitEvents, BulkDetails bulkDetails,
                                                      String userToken) {
         var start = Instant.now();
-        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_THREADS);
         for (SubmitEvent submitEvent : submitEvents) {
-            executor.execute(new BulkCreationTask(bulkDetails, submitEvent, userToken,
+            bulkUpdateExecutor.execute(new BulkCreationTask(bulkDetails, submitEvent, userToken,
                     bulkDetails.getCaseData().getMultipleReference(), MULTIPLE_CASE_TYPE, ccdClient));
         }
-        executor.shutdown();
         log.info("End in time: " + Duration.between(start, Instant.now()).toMillis());
     }
 
@@ -184,17 +184,15 @@ public class BulkCreationService {
             }
 
             if (!isPersistentQ) {
-                ExecutorService executor = Executors.newFixedThreadPool(NUMBER_THREADS);
                 if (!caseIds.contains(ethosCaseRef) && multipleCaseIds.contains(ethosCaseRef)) {
-                    executor.execute(new BulkCreationTask(bulkDetails, submitEvent, authToken, " ",
+                    bulkUpdateExecutor.execute(new BulkCreationTask(bulkDetails, submitEvent, authToken, " ",
                             SINGLE_CASE_TYPE, ccdClient));
                 } else {
                     multipleTypeItemList.add(BulkHelper.getMultipleTypeItemFromSubmitEvent(submitEvent,
                             bulkDetails.getCaseData().getMultipleReference()));
-                    executor.execute(new BulkCreationTask(bulkDetails, submitEvent, authToken,
+                    bulkUpdateExecutor.execute(new BulkCreationTask(bulkDetails, submitEvent, authToken,
                             bulkDetails.getCaseData().getMultipleReference(), MULTIPLE_CASE_TYPE, ccdClient));
                 }
-                executor.shutdown();
 
             } else {
 
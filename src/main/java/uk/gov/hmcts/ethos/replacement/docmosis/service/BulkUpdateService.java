@@ -2,7 +2,9 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ecm.common.client.CcdClient;
 import uk.gov.hmcts.ecm.common.exceptions.CaseCreationException;
@@ -40,15 +42,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.ACCEPTED_STATE;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.DEFAULT_SELECT_ALL_VALUE;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.NO;
-import static uk.gov.hmcts.ecm.common.model.helper.Constants.NUMBER_THREADS;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.SELECT_NONE_VALUE;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.SUBMITTED_STATE;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.YES;
@@ -61,15 +60,18 @@ public class BulkUpdateService {
     private final CcdClient ccdClient;
     private final UserService userService;
     private final CreateUpdatesBusSender createUpdatesBusSender;
+    private final TaskExecutor bulkUpdateExecutor;
     @Value("${ccd_gateway_base_url}")
     private String ccdGatewayBaseUrl;
 
     @Autowired
     public BulkUpdateService(CcdClient ccdClient, UserService userService,
-                             CreateUpdatesBusSender createUpdatesBusSender) {
+                             CreateUpdatesBusSender createUpdatesBusSender,
+                             @Qualifier("bulkUpdateExecutor") TaskExecutor bulkUpdateExecutor) {
         this.ccdClient = ccdClient;
         this.userService = userService;
         this.createUpdatesBusSender = createUpdatesBusSender;
+        this.bulkUpdateExecutor = bulkUpdateExecutor;
     }
 
     public BulkRequestPayload bulkUpdateLogic(BulkDetails bulkDetails, String userToken) {
@@ -128,7 +130,6 @@ public class BulkUpdateService {
                                                                    SubmitBulkEventSubmitEventType
                                                                            submitBulkEventSubmitEventType) {
         var start = Instant.now();
-        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_THREADS);
         var leadId = "";
         if (!multipleTypeItems.isEmpty()) {
             multipleTypeItems.get(0).getValue().setLeadClaimantM(YES);
@@ -143,7 +144,7 @@ public class BulkUpdateService {
                 }
                 log.info("setLeadClaimant is set to Yes");
                 submitEvent.getCaseData().setLeadClaimant(YES);
-                executor.execute(new BulkUpdateTask(bulkDetails, submitEvent, authToken, ccdClient));
+                bulkUpdateExecutor.execute(new BulkUpdateTask(bulkDetails, submitEvent, authToken, ccdClient));
             } catch (IOException e) {
                 log.error("Error processing ES retrieving lead case" + e.getMessage(), e);
 
@@ -151,11 +152,10 @@ public class BulkUpdateService {
         }
         if (submitBulkEventSubmitEventType.getSubmitBulkEventToUpdate() != null
                 || submitBulkEventSubmitEventType.getSubmitEventList() != null) {
-            executor.execute(new BulkUpdateBulkTask(bulkDetails, authToken, ccdClient,
+            bulkUpdateExecutor.execute(new BulkUpdateBulkTask(bulkDetails, authToken, ccdClient,
                     submitBulkEventSubmitEventType, leadId));
         }
         log.info("End in time: " + Duration.between(start, Instant.now()).toMillis());
-        executor.shutdown();
         return multipleTypeItems;
     }
 
@@ -578,10 +578,8 @@ public class BulkUpdateService {
     private void caseUpdatePreAcceptRequest(BulkDetails bulkDetails, SubmitEvent submitEvent, String userToken) {
         log.info("Current state ---> " + submitEvent.getState());
         var start = Instant.now();
-        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_THREADS);
-        executor.execute(new BulkPreAcceptTask(bulkDetails, submitEvent, userToken, ccdClient));
+        bulkUpdateExecutor.execute(new BulkPreAcceptTask(bulkDetails, submitEvent, userToken, ccdClient));
         log.info("End in time: " + Duration.between(start, Instant.now()).toMillis());
-        executor.shutdown();
     }
 
 }
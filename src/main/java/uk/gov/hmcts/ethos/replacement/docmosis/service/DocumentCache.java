@@ -0,0 +1,246 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Size bounded cache of downloaded documents on local disk, keyed by document UUID. Each document is kept with the
+ * entity tag it was downloaded with, so a later request can ask the document store whether the caller may still read
+ * it unchanged and only then be served the cached copy. The least recently used documents are deleted once the cache
+ * grows past its maximum size. Cached documents are memory mapped when read. The cache directory is cleared when the
+ * cache is created, so files left by an earlier run do not escape the size limit.
+ */
+@Slf4j
+@Component
+public class DocumentCache {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final Pattern DOCUMENT_UUID = Pattern.compile("[0-9a-fA-F-]{36}");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSize;
+    private final Map<String, CachedDocument> documents = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    public DocumentCache(@Value("${document_management.cache.enabled:false}") boolean enabled,
+                         @Value("${document_management.cache.directory:${java.io.tmpdir}/et-cos-document-cache}")
+                                 String directory,
+                         @Value("${document_management.cache.max-size:268435456}") long maxSize) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxSize = maxSize;
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns the cached document, or null when it is not cached.
+     */
+    public synchronized CachedDocument get(String documentUUID) {
+        return isCacheable(documentUUID) ? documents.get(documentUUID) : null;
+    }
+
+    /**
+     * Returns true when a document of the given length, or -1 when unknown, can be cached under the key.
+     */
+    public boolean accepts(String documentUUID, long length) {
+        return isCacheable(documentUUID) && length >= 0 && length <= maxSize && length <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Copies the content into the cache and returns the cached document, or null when the cache is disabled, the key
+     * is not a document UUID, there is no entity tag to check the document with or the document is larger than the
+     * whole cache.
+     */
+    public CachedDocument put(String documentUUID, String name, String contentType, String eTag, InputStream content)
+            throws IOException {
+        if (!isCacheable(documentUUID) || eTag == null) {
+            return null;
+        }
+        Files.createDirectories(directory);
+        var tempFile = Files.createTempFile(directory, documentUUID, TEMP_FILE_SUFFIX);
+        try {
+            var length = Files.copy(content, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            if (length > maxSize || length > Integer.MAX_VALUE) {
+                Files.delete(tempFile);
+                return null;
+            }
+            var file = directory.resolve(documentUUID);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            var document = new CachedDocument(name, contentType, eTag, file, length);
+            synchronized (this) {
+                var previous = documents.put(documentUUID, document);
+                size += length - (previous == null ? 0 : previous.length);
+                evict();
+            }
+            return document;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the document from the cache, for example once a newer version of it has been uploaded.
+     */
+    public synchronized void remove(String documentUUID) {
+        var document = documents.remove(documentUUID);
+        if (document != null) {
+            size -= document.length;
+            delete(document);
+        }
+    }
+
+    private void clear() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (var files = Files.list(directory)) {
+            // Only files named after a document are removed, in case the directory is shared
+            files.filter(file -> DOCUMENT_UUID.matcher(file.getFileName().toString()).lookingAt()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Unable to delete cached document " + file, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Unable to clear document cache " + directory, e);
+        }
+    }
+
+    private boolean isCacheable(String documentUUID) {
+        return enabled && documentUUID != null && DOCUMENT_UUID.matcher(documentUUID).matches();
+    }
+
+    private void evict() {
+        Iterator<CachedDocument> leastRecentlyUsed = documents.values().iterator();
+        while (size > maxSize && leastRecentlyUsed.hasNext()) {
+            var document = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            size -= document.length;
+            delete(document);
+        }
+    }
+
+    private void delete(CachedDocument document) {
+        try {
+            // Streams already reading the document keep their mapping of it
+            Files.deleteIfExists(document.file);
+        } catch (IOException e) {
+            log.warn("Unable to delete cached document " + document.file, e);
+        }
+    }
+
+    /**
+     * Document held in the cache, read as a memory mapped file.
+     */
+    public static final class CachedDocument extends AbstractResource {
+
+        private final String name;
+        private final String contentType;
+        private final String eTag;
+        private final Path file;
+        private final long length;
+
+        private CachedDocument(String name, String contentType, String eTag, Path file, long length) {
+            this.name = name;
+            this.contentType = contentType;
+            this.eTag = eTag;
+            this.file = file;
+            this.length = length;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Cached document [" + file + "]";
+        }
+
+        @Override
+        public String getFilename() {
+            return name;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try (var channel = FileChannel.open(file, READ)) {
+                return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            var count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            var skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Document being downloaded from the document store. The content is read straight from the HTTP response, which is
+ * held open until the download or its content stream is closed, or from the local document cache.
+ */
+public class DocumentDownload implements Closeable {
+
+    private static final String ORIGINAL_FILE_NAME = "originalfilename";
+
+    private final CloseableHttpResponse response;
+    private final DocumentCache.CachedDocument cachedDocument;
+    private final InputStream cachedContent;
+
+    DocumentDownload(CloseableHttpResponse response) {
+        this.response = response;
+        this.cachedDocument = null;
+        this.cachedContent = null;
+    }
+
+    /**
+     * Opens the cached document straight away, so a document evicted from the cache in the meantime fails here
+     * rather than when it is read.
+     */
+    DocumentDownload(DocumentCache.CachedDocument cachedDocument) throws IOException {
+        this.response = null;
+        this.cachedDocument = cachedDocument;
+        this.cachedContent = cachedDocument.getInputStream();
+    }
+
+    public boolean isCached() {
+        return cachedDocument != null;
+    }
+
+    /**
+     * Returns true when the document still matches the entity tag it was requested with, in which case there is no
+     * content.
+     */
+    public boolean isNotModified() {
+        return response != null && response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED;
+    }
+
+    /**
+     * Returns true when only the requested range of the document is returned.
+     */
+    public boolean isPartial() {
+        return response != null && response.getStatusLine().getStatusCode() == HttpStatus.SC_PARTIAL_CONTENT;
+    }
+
+    public String getName() {
+        return cachedDocument != null ? cachedDocument.getName() : getHeader(ORIGINAL_FILE_NAME);
+    }
+
+    public String getContentType() {
+        return cachedDocument != null ? cachedDocument.getContentType() : getHeader(HttpHeaders.CONTENT_TYPE);
+    }
+
+    public String getETag() {
+        return cachedDocument != null ? cachedDocument.getETag() : getHeader(HttpHeaders.ETAG);
+    }
+
+    public String getContentRange() {
+        return getHeader(HttpHeaders.CONTENT_RANGE);
+    }
+
+    /**
+     * Returns the length of the content, or -1 when it is not known.
+     */
+    public long getContentLength() {
+        if (cachedDocument != null) {
+            return cachedDocument.contentLength();
+        }
+        return response.getEntity() == null ? -1 : response.getEntity().getContentLength();
+    }
+
+    /**
+     * Returns the content as it arrives. Closing the stream closes the download.
+     */
+    public InputStream getInputStream() throws IOException {
+        if (cachedContent != null) {
+            return cachedContent;
+        }
+        if (response.getEntity() == null) {
+            return InputStream.nullInputStream();
+        }
+        return new FilterInputStream(response.getEntity().getContent()) {
+            @Override
+            public void close() throws IOException {
+                // Closing the response first abandons a partly read download rather than reading the rest of it
+                try {
+                    response.close();
+                } finally {
+                    super.close();
+                }
+            }
+        };
+    }
+
+    private String getHeader(String name) {
+        if (response == null) {
+            return null;
+        }
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (response != null) {
+            response.close();
+        } else {
+            cachedContent.close();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.ecm.common.model.ccd.CaseData;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
+import uk.gov.hmcts.ecm.common.model.listing.ListingData;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJob;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJobStatus;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.repository.DocumentGenerationJobRepository;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Runs document renders on a bounded executor so that callbacks can return before Tornado has finished.
+ * The job is tracked in the database so the result can be picked up by the confirmation callback or polled
+ * from any instance of the service.
+ */
+@Slf4j
+@Service
+public class DocumentGenerationJobService {
+
+    public static final String PENDING_MARK_UP_PREFIX = "Document generation in progress, reference: ";
+    static final String FAILED_MARK_UP = "Document generation failed, please try again";
+    static final int MAX_ERROR_MESSAGE_LENGTH = 2000;
+
+    private final DocumentGenerationJobRepository documentGenerationJobRepository;
+    private final TaskExecutor documentGenerationExecutor;
+    private final boolean asyncEnabled;
+
+    public DocumentGenerationJobService(DocumentGenerationJobRepository documentGenerationJobRepository,
+                                        @Qualifier("documentGenerationExecutor") TaskExecutor executor,
+                                        @Value("${document-generation.async.enabled:false}") boolean asyncEnabled) {
+        this.documentGenerationJobRepository = documentGenerationJobRepository;
+        this.documentGenerationExecutor = executor;
+        this.asyncEnabled = asyncEnabled;
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    /**
+     * Records a pending job and queues the render. Throws {@link TaskRejectedException} when the executor queue
+     * is full, in which case the caller should render synchronously instead.
+     */
+    public DocumentGenerationJob submit(String caseId, String caseTypeId, String documentName,
+                                        Supplier<DocumentInfo> render) {
+        var job = new DocumentGenerationJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setCaseId(caseId);
+        job.setCaseTypeId(caseTypeId);
+        job.setDocumentName(documentName);
+        job.setStatus(DocumentGenerationJobStatus.PENDING);
+        job.setCreatedDate(LocalDateTime.now());
+        documentGenerationJobRepository.save(job);
+
+        try {
+            documentGenerationExecutor.execute(() -> run(job, render));
+        } catch (TaskRejectedException e) {
+            log.warn("Document generation queue full, rejecting job {} for case {}", job.getId(), caseId);
+            documentGenerationJobRepository.delete(job);
+            throw e;
+        }
+        log.info("Queued document generation job {} for case {}", job.getId(), caseId);
+        return job;
+    }
+
+    /**
+     * Queues the render when asynchronous generation is enabled and returns the pending mark up to store on the
+     * case. Returns empty when the document should be rendered synchronously by the caller.
+     */
+    public Optional<String> submitIfEnabled(String caseId, String caseTypeId, String documentName,
+                                            Supplier<DocumentInfo> render) {
+        if (!asyncEnabled) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(getPendingMarkUp(submit(caseId, caseTypeId, documentName, render)));
+        } catch (TaskRejectedException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void run(DocumentGenerationJob job, Supplier<DocumentInfo> render) {
+        try {
+            var documentInfo = render.get();
+            job.setDocumentName(documentInfo.getDescription());
+            job.setDocumentUrl(documentInfo.getUrl());
+            job.setMarkUp(documentInfo.getMarkUp());
+            job.setStatus(DocumentGenerationJobStatus.COMPLETED);
+        } catch (Exception e) {
+            log.error("Document generation job {} failed", job.getId(), e);
+            job.setErrorMessage(StringUtils.abbreviate(Objects.toString(e.getMessage(), e.getClass().getName()),
+                    MAX_ERROR_MESSAGE_LENGTH));
+            job.setStatus(DocumentGenerationJobStatus.FAILED);
+        }
+        job.setCompletedDate(LocalDateTime.now());
+        documentGenerationJobRepository.save(job);
+    }
+
+    public Optional<DocumentGenerationJob> getJob(String jobId) {
+        return documentGenerationJobRepository.findById(jobId);
+    }
+
+    public String getPendingMarkUp(DocumentGenerationJob job) {
+        return PENDING_MARK_UP_PREFIX + job.getId();
+    }
+
+    /**
+     * Replaces a pending placeholder set by an asynchronous callback with the document link once the job has
+     * completed. Any other mark up is returned unchanged.
+     */
+    public String resolveMarkUp(String docMarkUp) {
+        if (docMarkUp == null || !docMarkUp.startsWith(PENDING_MARK_UP_PREFIX)) {
+            return docMarkUp;
+        }
+        var jobId = docMarkUp.substring(PENDING_MARK_UP_PREFIX.length());
+        return getJob(jobId).map(job -> {
+            if (job.getStatus() == DocumentGenerationJobStatus.COMPLETED) {
+                return job.getMarkUp();
+            } else if (job.getStatus() == DocumentGenerationJobStatus.FAILED) {
+                return FAILED_MARK_UP;
+            }
+            return docMarkUp;
+        }).orElse(docMarkUp);
+    }
+
+    /**
+     * Replaces a pending placeholder still held on the case once its job has finished. A job can finish after the
+     * confirmation callback, so the placeholder is resolved by later callbacks for the case and stored with them.
+     */
+    public void resolvePendingMarkUp(ListingData listingData) {
+        if (listingData != null) {
+            listingData.setDocMarkUp(resolveMarkUp(listingData.getDocMarkUp()));
+        }
+    }
+
+    public void resolvePendingMarkUp(CaseData caseData) {
+        if (caseData != null) {
+            caseData.setDocMarkUp(resolveMarkUp(caseData.getDocMarkUp()));
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
@@ -21,11 +26,15 @@ import uk.gov.hmcts.reform.document.DocumentDownloadClientApi;
 import uk.gov.hmcts.reform.document.DocumentUploadClientApi;
 import uk.gov.hmcts.reform.document.utils.InMemoryMultipartFile;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Objects;
 
 import static java.util.Collections.singletonList;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_PARTIAL_CONTENT;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.OUTPUT_FILE_NAME;
 
 @Service
@@ -33,20 +42,29 @@ import static uk.gov.hmcts.ecm.common.model.helper.Constants.OUTPUT_FILE_NAME;
 @ComponentScan("uk.gov.hmcts.reform.ccd.document.am.feign")
 public class DocumentManagementService {
 
-    private static final String FILES_NAME = "files";
+    public static final String FILES_NAME = "files";
     public static final String APPLICATION_DOCX_VALUE =
             "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
     private static final String JURISDICTION = "EMPLOYMENT";
+    private static final String SERVICE_AUTHORIZATION = "ServiceAuthorization";
+    private static final String USER_ROLES = "user-roles";
+    private static final String USER_ID = "user-id";
     private final DocumentUploadClientApi documentUploadClient;
     private final AuthTokenGenerator authTokenGenerator;
     private final DocumentDownloadClientApi documentDownloadClientApi;
     private final UserService userService;
     private final CaseDocumentClient caseDocumentClient;
+    private final CloseableHttpClient documentHttpClient;
+    private final DocumentCache documentCache;
 
     @Value("${ccd_gateway_base_url}")
     private String ccdGatewayBaseUrl;
     @Value("${document_management.ccdCaseDocument.url}")
     private String ccdDMStoreBaseUrl;
+    @Value("${document_management.url}")
+    private String documentManagementUrl;
+    @Value("${case_document_am.url}")
+    private String caseDocumentAmUrl;
     @Value("${feature.secure-doc-store.enabled}")
     private boolean secureDocStoreEnabled;
 
@@ -54,19 +72,28 @@ public class DocumentManagementService {
     public DocumentManagementService(DocumentUploadClientApi documentUploadClient,
                                      AuthTokenGenerator authTokenGenerator, UserService userService,
                                      DocumentDownloadClientApi documentDownloadClientApi,
-                                     CaseDocumentClient caseDocumentClient) {
+                                     CaseDocumentClient caseDocumentClient,
+                                     @Qualifier("documentHttpClient") CloseableHttpClient documentHttpClient,
+                                     DocumentCache documentCache) {
         this.documentUploadClient = documentUploadClient;
         this.authTokenGenerator = authTokenGenerator;
         this.userService = userService;
         this.documentDownloadClientApi = documentDownloadClientApi;
         this.caseDocumentClient = caseDocumentClient;
+        this.documentHttpClient = documentHttpClient;
+        this.documentCache = documentCache;
     }
 
     @Retryable(value = {DocumentManagementException.class}, backoff = @Backoff(delay = 200))
     public URI uploadDocument(String authToken, byte[] byteArray, String outputFileName, String type,
                               String caseTypeID) {
+        MultipartFile file = new InMemoryMultipartFile(FILES_NAME, outputFileName, type, byteArray);
+        return uploadDocument(authToken, file, caseTypeID);
+    }
+
+    @Retryable(value = {DocumentManagementException.class}, backoff = @Backoff(delay = 200))
+    public URI uploadDocument(String authToken, MultipartFile file, String caseTypeID) {
         try {
-            MultipartFile file = new InMemoryMultipartFile(FILES_NAME, outputFileName, type, byteArray);
             if (secureDocStoreEnabled) {
                 log.info("Using Case Document Client");
                 var response = caseDocumentClient.uploadDocuments(
@@ -107,7 +134,7 @@ public class DocumentManagementService {
         } catch (Exception ex) {
             log.info("Exception: " + ex.getMessage());
             throw new DocumentManagementException(String.format("Unable to upload document %s to document management",
-                    outputFileName), ex);
+                    file.getOriginalFilename()), ex);
         }
     }
 
@@ -120,16 +147,17 @@ public class DocumentManagementService {
     }
 
     public UploadedDocument downloadFile(String authToken, String urlString) {
-        var user = userService.getUserDetails(authToken);
+        var documentUUID = getDocumentUUID(urlString);
         ResponseEntity<Resource> response;
         if (secureDocStoreEnabled) {
             response = caseDocumentClient.getDocumentBinary(
                     authToken,
                     authTokenGenerator.generate(),
-                    getDocumentUUID(urlString)
+                    documentUUID
             );
 
         } else {
+            var user = userService.getUserDetails(authToken);
             response = documentDownloadClientApi.downloadBinary(
                     authToken,
                     authTokenGenerator.generate(),
@@ -139,10 +167,12 @@ public class DocumentManagementService {
             );
         }
         if (HttpStatus.OK.equals(response.getStatusCode())) {
+            var name = Objects.requireNonNull(response.getHeaders().get("originalfilename")).get(0);
+            var contentType = Objects.requireNonNull(response.getHeaders().get(HttpHeaders.CONTENT_TYPE)).get(0);
             return UploadedDocument.builder()
                     .content(response.getBody())
-                    .name(Objects.requireNonNull(response.getHeaders().get("originalfilename")).get(0))
-                    .contentType(Objects.requireNonNull(response.getHeaders().get(HttpHeaders.CONTENT_TYPE)).get(0))
+                    .name(name)
+                    .contentType(contentType)
                     .build();
         } else {
             throw new IllegalStateException("Cannot download document that is stored in CCD got "
@@ -150,6 +180,106 @@ public class DocumentManagementService {
         }
     }
 
+    /**
+     * Opens a streaming download of the document, read as it arrives rather than held in memory. When an entity tag
+     * is given the document is only sent if it has changed since, and when a range is given only that part of it is
+     * sent. Whole documents held in the local document cache are still requested with the entity tag they were
+     * cached with, so the document store checks the caller may read them, and are only served from the cache when
+     * they have not changed. The caller must close the download.
+     */
+    public DocumentDownload openDocument(String authToken, String urlString, String eTag, HttpRange range)
+            throws IOException {
+        return openDocument(authToken, urlString, eTag, range, true);
+    }
+
+    private DocumentDownload openDocument(String authToken, String urlString, String eTag, HttpRange range,
+                                          boolean useCache) throws IOException {
+        var documentUUID = getDocumentUUID(urlString);
+        var wholeDocument = useCache && eTag == null && range == null;
+        var cachedDocument = wholeDocument ? documentCache.get(documentUUID) : null;
+
+        HttpGet request;
+        if (secureDocStoreEnabled) {
+            request = new HttpGet(caseDocumentAmUrl + "/cases/documents/" + documentUUID + "/binary");
+        } else {
+            var user = userService.getUserDetails(authToken);
+            request = new HttpGet(documentManagementUrl + getDownloadUrl(urlString));
+            request.setHeader(USER_ROLES, String.join(",", user.getRoles()));
+            request.setHeader(USER_ID, user.getUid());
+        }
+        request.setHeader(HttpHeaders.AUTHORIZATION, authToken);
+        request.setHeader(SERVICE_AUTHORIZATION, authTokenGenerator.generate());
+        if (eTag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        } else if (cachedDocument != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, cachedDocument.getETag());
+        }
+        if (range != null) {
+            request.setHeader(HttpHeaders.RANGE, HttpRange.toString(singletonList(range)));
+        }
+
+        var response = documentHttpClient.execute(request);
+        var statusLine = response.getStatusLine();
+        if (statusLine.getStatusCode() == SC_OK || statusLine.getStatusCode() == SC_PARTIAL_CONTENT
+                || statusLine.getStatusCode() == SC_NOT_MODIFIED) {
+            if (cachedDocument != null && statusLine.getStatusCode() == SC_NOT_MODIFIED) {
+                response.close();
+                var cachedDownload = openCachedDocument(documentUUID, cachedDocument);
+                return cachedDownload != null ? cachedDownload : openDocument(authToken, urlString, null, null);
+            }
+            var download = new DocumentDownload(response);
+            if (wholeDocument && statusLine.getStatusCode() == SC_OK && download.getETag() != null
+                    && documentCache.accepts(documentUUID, download.getContentLength())) {
+                var cachedDownload = cacheDownload(documentUUID, download);
+                // The cache is best effort, a document it cannot hold is downloaded again and streamed as it is
+                return cachedDownload != null
+                        ? cachedDownload
+                        : openDocument(authToken, urlString, null, null, false);
+            }
+            return download;
+        }
+        try (response) {
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
+        throw new IllegalStateException("Cannot download document that is stored in CCD got "
+                + "[" + statusLine.getStatusCode() + "] " + statusLine.getReasonPhrase());
+    }
+
+    /**
+     * Removes the document from the local document cache once it has been replaced by a newer version.
+     */
+    public void evictDocument(String urlString) {
+        if (urlString != null) {
+            documentCache.remove(getDocumentUUID(urlString));
+        }
+    }
+
+    private DocumentDownload openCachedDocument(String documentUUID, DocumentCache.CachedDocument cachedDocument) {
+        try {
+            log.info("Using cached document " + documentUUID);
+            return new DocumentDownload(cachedDocument);
+        } catch (IOException e) {
+            log.warn("Unable to read cached document " + documentUUID, e);
+            documentCache.remove(documentUUID);
+            return null;
+        }
+    }
+
+    private DocumentDownload cacheDownload(String documentUUID, DocumentDownload download) {
+        try (download; var content = download.getInputStream()) {
+            var cachedDocument = documentCache.put(documentUUID, download.getName(), download.getContentType(),
+                    download.getETag(), content);
+            if (cachedDocument == null) {
+                log.warn("Unable to cache document " + documentUUID);
+                return null;
+            }
+            return new DocumentDownload(cachedDocument);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to cache document " + documentUUID, e);
+            return null;
+        }
+    }
+
     private String getDownloadUrl(String urlString) {
         var path = urlString.replace(ccdDMStoreBaseUrl, "");
         if (path.startsWith("/")) {
@@ -371,9 +371,10 @@ public class ListingService {
         return true;
     }
 
-    public DocumentInfo processHearingDocument(ListingData listingData, String caseTypeId, String authToken) {
+    public DocumentInfo processHearingDocument(ListingData listingData, String caseTypeId, String caseId,
+                                               String authToken) {
         try {
-            return tornadoService.listingGeneration(authToken, listingData, caseTypeId);
+            return tornadoService.listingGeneration(authToken, listingData, caseTypeId, caseId);
         } catch (Exception ex) {
             throw new DocumentManagementException(MESSAGE + caseTypeId, ex);
         }
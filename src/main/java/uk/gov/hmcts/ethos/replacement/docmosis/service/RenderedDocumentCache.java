@@ -0,0 +1,81 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
+
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Remembers documents already rendered and uploaded for an identical Tornado instruction so that regenerating
+ * the same listing or report does not render and upload it again. Documents are only reused for the case they were
+ * uploaded for, as the secure document store binds each document to its case.
+ */
+@Component
+public class RenderedDocumentCache {
+
+    private static final String TODAY_DATE_FIELD = "\"Today_date\":\"";
+
+    private final boolean enabled;
+    private final Cache<String, DocumentInfo> cache;
+
+    public RenderedDocumentCache(@Value("${tornado.renderCache.enabled:false}") boolean enabled,
+                                 @Value("${tornado.renderCache.maxSize:200}") long maxSize,
+                                 @Value("${tornado.renderCache.ttl:PT10M}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns a hash of the case, its case type and the instruction, ignoring the Today_date field which changes on
+     * every render.
+     */
+    public String getKey(StringBuilder instruction, String caseTypeId, String caseId) {
+        var hasher = Hashing.sha256().newHasher();
+        hasher.putUnencodedChars(caseTypeId);
+        hasher.putChar('\0');
+        hasher.putUnencodedChars(String.valueOf(caseId));
+        hasher.putChar('\0');
+        var start = instruction.indexOf(TODAY_DATE_FIELD);
+        if (start < 0) {
+            hasher.putUnencodedChars(instruction);
+        } else {
+            var end = instruction.indexOf("\n", start);
+            hasher.putUnencodedChars(CharBuffer.wrap(instruction, 0, start));
+            if (end >= 0) {
+                hasher.putUnencodedChars(CharBuffer.wrap(instruction, end, instruction.length()));
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    public Optional<DocumentInfo> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(key)).map(RenderedDocumentCache::copy);
+    }
+
+    public void put(String key, DocumentInfo documentInfo) {
+        if (enabled) {
+            cache.put(key, copy(documentInfo));
+        }
+    }
+
+    private static DocumentInfo copy(DocumentInfo documentInfo) {
+        return DocumentInfo.builder()
+                .type(documentInfo.getType())
+                .description(documentInfo.getDescription())
+                .markUp(documentInfo.getMarkUp())
+                .url(documentInfo.getUrl())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * {@link MultipartFile} that keeps small content in memory and spools anything above the threshold to a
+ * temporary file, so large generated documents are not held in heap while they are uploaded.
+ * The temporary file is deleted on {@link #close()}.
+ */
+public class SpooledMultipartFile implements MultipartFile, Closeable {
+
+    private static final String TEMP_FILE_PREFIX = "et-cos-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final DeferredFileOutputStream content;
+
+    private SpooledMultipartFile(String name, String originalFilename, String contentType,
+                                 DeferredFileOutputStream content) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    public static SpooledMultipartFile create(String name, String originalFilename, String contentType,
+                                              InputStream inputStream, int threshold) throws IOException {
+        return create(name, originalFilename, contentType, out -> IOUtils.copy(inputStream, out), threshold);
+    }
+
+    public static SpooledMultipartFile create(String name, String originalFilename, String contentType,
+                                              ContentWriter writer, int threshold) throws IOException {
+        var content = new DeferredFileOutputStream(threshold, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, null);
+        try (content) {
+            writer.writeTo(content);
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(content);
+            throw e;
+        }
+        return new SpooledMultipartFile(name, originalFilename, contentType, content);
+    }
+
+    public boolean isInMemory() {
+        return content.isInMemory();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.getByteCount();
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        if (content.isInMemory()) {
+            return content.getData();
+        }
+        return Files.readAllBytes(content.getFile().toPath());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (content.isInMemory()) {
+            return new ByteArrayInputStream(content.getData());
+        }
+        return Files.newInputStream(content.getFile().toPath());
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        try (var inputStream = getInputStream()) {
+            Files.copy(inputStream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        deleteTempFile(content);
+    }
+
+    /**
+     * Writes the content of a file being spooled.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    private static void deleteTempFile(DeferredFileOutputStream content) throws IOException {
+        if (!content.isInMemory() && content.getFile() != null) {
+            Files.deleteIfExists(content.getFile().toPath());
+        }
+    }
+}
@@ -1,32 +1,35 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoConfiguration;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 
 @Component
 public class TornadoConnection {
 
     private final TornadoConfiguration tornadoConfiguration;
+    private final CloseableHttpClient httpClient;
 
-    public TornadoConnection(TornadoConfiguration tornadoConfiguration) {
+    public TornadoConnection(TornadoConfiguration tornadoConfiguration,
+                             @Qualifier("tornadoHttpClient") CloseableHttpClient httpClient) {
         this.tornadoConfiguration = tornadoConfiguration;
+        this.httpClient = httpClient;
     }
 
-    public HttpURLConnection createConnection() throws IOException {
-        var tornadoURL = tornadoConfiguration.getUrl();
-        var conn = (HttpURLConnection) new URL(tornadoURL).openConnection();
-        conn.setRequestMethod("POST");
-        conn.setUseCaches(false);
-        conn.setDoOutput(true);
-        conn.setDoInput(true);
-        conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-        conn.connect();
-
-        return conn;
+    /**
+     * Posts the instruction to Tornado over a pooled keep-alive connection. The caller must close the response
+     * once the body has been read so the connection is returned to the pool.
+     */
+    public CloseableHttpResponse execute(HttpEntity instruction) throws IOException {
+        var request = new HttpPost(tornadoConfiguration.getUrl());
+        request.setEntity(instruction);
+        return httpClient.execute(request);
     }
 
     public String getAccessKey() {
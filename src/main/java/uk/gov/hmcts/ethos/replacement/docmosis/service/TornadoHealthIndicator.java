@@ -0,0 +1,27 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the state of the Tornado rendering guard. Always up, so an open circuit does not take the whole
+ * service out of the load balancer.
+ */
+@RequiredArgsConstructor
+@Component
+public class TornadoHealthIndicator implements HealthIndicator {
+
+    private final TornadoRenderGuard tornadoRenderGuard;
+
+    @Override
+    public Health health() {
+        return Health.up()
+                .withDetail("circuitBreaker", tornadoRenderGuard.getState())
+                .withDetail("failureRate", tornadoRenderGuard.getFailureRate())
+                .withDetail("slowCallRate", tornadoRenderGuard.getSlowCallRate())
+                .withDetail("availableRenders", tornadoRenderGuard.getAvailableRenders())
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a Tornado instruction into the request body in small chunks, avoiding the String and byte[]
+ * copies of the whole payload that would otherwise be made before writing it to the connection.
+ */
+public class TornadoInstructionEntity extends AbstractHttpEntity {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final StringBuilder instruction;
+    private long bytesWritten;
+    private long writeNanos;
+
+    public TornadoInstructionEntity(StringBuilder instruction) {
+        this.instruction = instruction;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(instruction.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        final long writeStart = System.nanoTime();
+        var countingOutputStream = new CountingOutputStream(outputStream);
+        var writer = new OutputStreamWriter(countingOutputStream, StandardCharsets.UTF_8);
+        var buffer = new char[CHUNK_SIZE];
+        var length = instruction.length();
+        for (var start = 0; start < length; start += CHUNK_SIZE) {
+            var end = Math.min(length, start + CHUNK_SIZE);
+            instruction.getChars(start, end, buffer, 0);
+            writer.write(buffer, 0, end - start);
+        }
+        writer.flush();
+        bytesWritten = countingOutputStream.getByteCount();
+        writeNanos = System.nanoTime() - writeStart;
+    }
+
+    /**
+     * Returns the number of bytes sent by the last {@link #writeTo(OutputStream)}.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Records how long each phase of a Tornado render takes and how large the instruction and rendered document are,
+ * tagged by template and case type.
+ */
+@RequiredArgsConstructor
+@Component
+public class TornadoMetrics {
+
+    static final String PHASE_TIMER = "tornado.render.phase";
+    static final String INSTRUCTION_SIZE = "tornado.instruction.size";
+    static final String DOCUMENT_SIZE = "tornado.document.size";
+
+    static final String BUILD = "build";
+    static final String WAIT = "wait";
+    static final String WRITE = "write";
+    static final String RENDER = "render";
+    static final String READ = "read";
+    static final String UPLOAD = "upload";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordPhase(String phase, String templateName, String caseTypeId, long nanos) {
+        Timer.builder(PHASE_TIMER)
+                .description("Time spent in each phase of a Tornado render")
+                .tag("phase", phase)
+                .tag("template", tagValue(templateName))
+                .tag("caseType", tagValue(caseTypeId))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the write and Docmosis render phases of a request. The request write time is measured by the
+     * instruction entity, the rest of the call is spent waiting for Docmosis to render.
+     */
+    public void recordRequest(TornadoInstructionEntity instruction, String templateName, String caseTypeId,
+                              long nanos) {
+        recordPhase(WRITE, templateName, caseTypeId, instruction.getWriteNanos());
+        recordPhase(RENDER, templateName, caseTypeId, Math.max(0, nanos - instruction.getWriteNanos()));
+        recordSize(INSTRUCTION_SIZE, templateName, caseTypeId, instruction.getBytesWritten());
+    }
+
+    public void recordDocumentSize(String templateName, String caseTypeId, long bytes) {
+        recordSize(DOCUMENT_SIZE, templateName, caseTypeId, bytes);
+    }
+
+    private void recordSize(String name, String templateName, String caseTypeId, long bytes) {
+        DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tag("template", tagValue(templateName))
+                .tag("caseType", tagValue(caseTypeId))
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private static String tagValue(String value) {
+        return isNullOrEmpty(value) ? UNKNOWN : value;
+    }
+}
@@ -0,0 +1,185 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoConfiguration;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+
+/**
+ * Limits the number of concurrent Tornado renders and stops calling Tornado for a while when too many recent
+ * renders have failed or been slow, so a struggling Docmosis does not tie up every request thread.
+ */
+@Slf4j
+@Component
+public class TornadoRenderGuard {
+
+    static final String BULKHEAD_FULL_MESSAGE = "Tornado rendering limit reached";
+    static final String CIRCUIT_OPEN_MESSAGE = "Tornado circuit breaker is open";
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * A call to Tornado returning the raw response.
+     */
+    @FunctionalInterface
+    public interface TornadoCall {
+        CloseableHttpResponse execute() throws IOException;
+    }
+
+    private final Semaphore bulkhead;
+    private final long bulkheadMaxWait;
+    private final TornadoConfiguration.CircuitBreaker circuitBreaker;
+    private final LongSupplier clock;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowIndex;
+    private int numberOfCalls;
+    private int numberOfFailedCalls;
+    private int numberOfSlowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    @Autowired
+    public TornadoRenderGuard(TornadoConfiguration tornadoConfiguration) {
+        this(tornadoConfiguration, System::currentTimeMillis);
+    }
+
+    TornadoRenderGuard(TornadoConfiguration tornadoConfiguration, LongSupplier clock) {
+        this.bulkhead = new Semaphore(tornadoConfiguration.getMaxConcurrentRenders(), true);
+        this.bulkheadMaxWait = tornadoConfiguration.getBulkheadMaxWait();
+        this.circuitBreaker = tornadoConfiguration.getCircuitBreaker();
+        this.clock = clock;
+        this.failedCalls = new boolean[circuitBreaker.getSlidingWindowSize()];
+        this.slowCalls = new boolean[circuitBreaker.getSlidingWindowSize()];
+    }
+
+    public CloseableHttpResponse execute(TornadoCall call) throws IOException {
+        acquireBulkhead();
+        try {
+            if (circuitBreaker.isEnabled() && !tryAcquirePermission()) {
+                throw new IOException(CIRCUIT_OPEN_MESSAGE);
+            }
+            var start = clock.getAsLong();
+            var failed = true;
+            try {
+                var response = call.execute();
+                failed = response.getStatusLine().getStatusCode() >= HTTP_INTERNAL_ERROR;
+                return response;
+            } finally {
+                if (circuitBreaker.isEnabled()) {
+                    onResult(failed, clock.getAsLong() - start >= circuitBreaker.getSlowCallDurationThreshold());
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getFailureRate() {
+        return numberOfCalls == 0 ? 0 : numberOfFailedCalls * 100 / numberOfCalls;
+    }
+
+    public synchronized int getSlowCallRate() {
+        return numberOfCalls == 0 ? 0 : numberOfSlowCalls * 100 / numberOfCalls;
+    }
+
+    public int getAvailableRenders() {
+        return bulkhead.availablePermits();
+    }
+
+    private void acquireBulkhead() throws IOException {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadMaxWait, TimeUnit.MILLISECONDS)) {
+                throw new IOException(BULKHEAD_FULL_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(BULKHEAD_FULL_MESSAGE);
+        }
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < circuitBreaker.getWaitDurationInOpenState()) {
+                return false;
+            }
+            log.info("Tornado circuit breaker half open");
+            state = State.HALF_OPEN;
+            halfOpenPermits = circuitBreaker.getPermittedCallsInHalfOpenState();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    private synchronized void onResult(boolean failed, boolean slow) {
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= circuitBreaker.getPermittedCallsInHalfOpenState()) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(failed, slow);
+            if (numberOfCalls >= circuitBreaker.getMinimumNumberOfCalls()
+                    && (getFailureRate() >= circuitBreaker.getFailureRateThreshold()
+                    || getSlowCallRate() >= circuitBreaker.getSlowCallRateThreshold())) {
+                open();
+            }
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (numberOfCalls == failedCalls.length) {
+            numberOfFailedCalls -= failedCalls[windowIndex] ? 1 : 0;
+            numberOfSlowCalls -= slowCalls[windowIndex] ? 1 : 0;
+        } else {
+            numberOfCalls++;
+        }
+        failedCalls[windowIndex] = failed;
+        slowCalls[windowIndex] = slow;
+        numberOfFailedCalls += failed ? 1 : 0;
+        numberOfSlowCalls += slow ? 1 : 0;
+        windowIndex = (windowIndex + 1) % failedCalls.length;
+    }
+
+    private void open() {
+        log.warn("Tornado circuit breaker open, failure rate {}%, slow call rate {}%", getFailureRate(),
+                getSlowCallRate());
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        log.info("Tornado circuit breaker closed");
+        state = State.CLOSED;
+        windowIndex = 0;
+        numberOfCalls = 0;
+        numberOfFailedCalls = 0;
+        numberOfSlowCalls = 0;
+    }
+}
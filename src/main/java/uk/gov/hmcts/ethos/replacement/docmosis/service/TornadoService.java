@@ -2,8 +2,13 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.hmcts.ecm.common.idam.models.UserDetails;
 import uk.gov.hmcts.ecm.common.model.bulk.BulkData;
 import uk.gov.hmcts.ecm.common.model.ccd.CaseData;
 import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
@@ -12,6 +17,7 @@ import uk.gov.hmcts.ecm.common.model.ccd.types.CorrespondenceType;
 import uk.gov.hmcts.ecm.common.model.helper.DefaultValues;
 import uk.gov.hmcts.ecm.common.model.listing.ListingData;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
+import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoConfiguration;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.BulkHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.DocumentHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.Helper;
@@ -19,19 +25,19 @@ import uk.gov.hmcts.ethos.replacement.docmosis.helpers.ListingHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.ReportDocHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.SignificantItemType;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 
 import static java.net.HttpURLConnection.HTTP_OK;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.LETTER_ADDRESS_ALLOCATED_OFFICE;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.OUTPUT_FILE_NAME;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.SCOTLAND_CASE_TYPE_ID;
 import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService.APPLICATION_DOCX_VALUE;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService.FILES_NAME;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.TornadoMetrics.BUILD;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.TornadoMetrics.READ;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.TornadoMetrics.UPLOAD;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.TornadoMetrics.WAIT;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -44,6 +50,10 @@ public class TornadoService {
     private final UserService userService;
     private final DefaultValuesReaderService defaultValuesReaderService;
     private final VenueAddressReaderService venueAddressReaderService;
+    private final RenderedDocumentCache renderedDocumentCache;
+    private final TornadoRenderGuard tornadoRenderGuard;
+    private final TornadoMetrics tornadoMetrics;
+    private final TornadoConfiguration tornadoConfiguration;
 
     @Value("${ccd_gateway_base_url}")
     private String ccdGatewayBaseUrl;
@@ -52,37 +62,71 @@ public class TornadoService {
                                            CorrespondenceType correspondenceType,
                                            CorrespondenceScotType correspondenceScotType,
                                            MultipleData multipleData) throws IOException {
-        HttpURLConnection conn = null;
         try {
-            conn = createConnection();
-
-            buildInstruction(conn, caseData, authToken, caseTypeId,
+            var templateName = DocumentHelper.getTemplateName(correspondenceType, correspondenceScotType);
+            var buildStart = System.nanoTime();
+            var instruction = buildInstruction(caseData, authToken, caseTypeId,
                     correspondenceType, correspondenceScotType, multipleData);
+            tornadoMetrics.recordPhase(BUILD, templateName, caseTypeId, System.nanoTime() - buildStart);
             var documentName = Helper.getDocumentName(correspondenceType, correspondenceScotType);
-            return checkResponseStatus(authToken, conn, documentName, caseTypeId);
+            return render(authToken, instruction, documentName, templateName, caseTypeId);
         } catch (IOException e) {
             log.error(UNABLE_TO_CONNECT_TO_DOCMOSIS, e);
             throw e;
-        } finally {
-            closeConnection(conn);
         }
     }
 
-    private void buildInstruction(HttpURLConnection conn, CaseData caseData, String authToken,
-                                  String caseTypeId, CorrespondenceType correspondenceType,
-                                  CorrespondenceScotType correspondenceScotType,
-                                  MultipleData multipleData) throws IOException {
-        try (var os = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
-            var allocatedCourtAddress = getAllocatedCourtAddress(caseData, caseTypeId, multipleData);
-            var userDetails = userService.getUserDetails(authToken);
+    /**
+     * Renders a letter and spools it without uploading it, so several letters can be combined into one upload.
+     * The user details are passed in so that a batch of letters only looks them up once.
+     */
+    public SpooledMultipartFile renderDocument(UserDetails userDetails, CaseData caseData, String caseTypeId,
+                                               CorrespondenceType correspondenceType,
+                                               CorrespondenceScotType correspondenceScotType,
+                                               MultipleData multipleData) throws IOException {
+        var templateName = DocumentHelper.getTemplateName(correspondenceType, correspondenceScotType);
+        var buildStart = System.nanoTime();
+        var instruction = buildInstruction(caseData, userDetails, caseTypeId,
+                correspondenceType, correspondenceScotType, multipleData);
+        tornadoMetrics.recordPhase(BUILD, templateName, caseTypeId, System.nanoTime() - buildStart);
+        try (var response = execute(instruction, templateName, caseTypeId)) {
+            checkResponseStatus(response);
+            return readDocument(response, templateName, caseTypeId);
+        }
+    }
 
-            var documentContent = DocumentHelper.buildDocumentContent(caseData,
-                    tornadoConnection.getAccessKey(),
-                    userDetails, caseTypeId, correspondenceType,
-                    correspondenceScotType, multipleData, allocatedCourtAddress, venueAddressReaderService);
+    /**
+     * Uploads an already rendered file and returns the document details to store against the case.
+     */
+    public DocumentInfo uploadDocument(String authToken, MultipartFile file, String documentName,
+                                       String caseTypeId) {
+        var documentSelfPath = documentManagementService.uploadDocument(authToken, file, caseTypeId);
+        log.info("URI documentSelfPath uploaded and created: " + documentSelfPath.toString());
+        var downloadUrl = documentManagementService.generateDownloadableURL(documentSelfPath);
+        var markup = documentManagementService.generateMarkupDocument(downloadUrl);
+        return generateDocumentInfo(documentName, documentSelfPath, markup);
+    }
 
-            writeOutputStream(os, documentContent);
-        }
+    private TornadoInstructionEntity buildInstruction(CaseData caseData, String authToken,
+                                                      String caseTypeId, CorrespondenceType correspondenceType,
+                                                      CorrespondenceScotType correspondenceScotType,
+                                                      MultipleData multipleData) {
+        return buildInstruction(caseData, userService.getUserDetails(authToken), caseTypeId, correspondenceType,
+                correspondenceScotType, multipleData);
+    }
+
+    private TornadoInstructionEntity buildInstruction(CaseData caseData, UserDetails userDetails,
+                                                      String caseTypeId, CorrespondenceType correspondenceType,
+                                                      CorrespondenceScotType correspondenceScotType,
+                                                      MultipleData multipleData) {
+        var allocatedCourtAddress = getAllocatedCourtAddress(caseData, caseTypeId, multipleData);
+
+        var documentContent = DocumentHelper.buildDocumentContent(caseData,
+                tornadoConnection.getAccessKey(),
+                userDetails, caseTypeId, correspondenceType,
+                correspondenceScotType, multipleData, allocatedCourtAddress, venueAddressReaderService);
+
+        return createEntity(documentContent);
     }
 
     private DefaultValues getAllocatedCourtAddress(CaseData caseData, String caseTypeId, MultipleData multipleData) {
@@ -99,24 +143,30 @@ public class TornadoService {
                 && correspondenceScotType.getLetterAddress().equals(LETTER_ADDRESS_ALLOCATED_OFFICE);
     }
 
-    DocumentInfo listingGeneration(String authToken, ListingData listingData, String caseType) throws IOException {
-        HttpURLConnection conn = null;
+    DocumentInfo listingGeneration(String authToken, ListingData listingData, String caseType, String caseId)
+            throws IOException {
         try {
-            conn = createConnection();
-
             var documentName = ListingHelper.getListingDocName(listingData);
-            buildListingInstruction(conn, listingData, documentName, authToken, caseType);
-            return checkResponseStatus(authToken, conn, documentName, caseType);
+            var buildStart = System.nanoTime();
+            var content = buildListingContent(listingData, documentName, authToken, caseType);
+            tornadoMetrics.recordPhase(BUILD, documentName, caseType, System.nanoTime() - buildStart);
+            var cacheKey = renderedDocumentCache.getKey(content, caseType, caseId);
+            var cachedDocument = renderedDocumentCache.get(cacheKey);
+            if (cachedDocument.isPresent()) {
+                log.info("Reusing rendered document for " + documentName);
+                return cachedDocument.get();
+            }
+            var documentInfo = render(authToken, createEntity(content), documentName, documentName, caseType);
+            renderedDocumentCache.put(cacheKey, documentInfo);
+            return documentInfo;
         } catch (IOException e) {
             log.error(UNABLE_TO_CONNECT_TO_DOCMOSIS, e);
             throw e;
-        } finally {
-            closeConnection(conn);
         }
     }
 
-    private void buildListingInstruction(HttpURLConnection conn, ListingData listingData,
-                                         String documentName, String authToken, String caseType) throws IOException {
+    private StringBuilder buildListingContent(ListingData listingData, String documentName, String authToken,
+                                              String caseType) {
         var userDetails = userService.getUserDetails(authToken);
         StringBuilder sb;
 
@@ -127,81 +177,83 @@ public class TornadoService {
             sb = ListingHelper.buildListingDocumentContent(listingData, tornadoConnection.getAccessKey(),
                     documentName, userDetails, caseType);
         }
-        try (var outputStreamWriter = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
-            writeOutputStream(outputStreamWriter, sb);
-        }
+        return sb;
     }
 
     DocumentInfo scheduleGeneration(String authToken, BulkData bulkData, String caseTypeId) throws IOException {
-        HttpURLConnection conn = null;
         try {
-            conn = createConnection();
-
             var documentName = BulkHelper.getScheduleDocName(bulkData.getScheduleDocName());
-            buildScheduleInstruction(conn, bulkData);
-            return checkResponseStatus(authToken, conn, documentName, caseTypeId);
+            var buildStart = System.nanoTime();
+            var instruction = buildScheduleInstruction(bulkData);
+            tornadoMetrics.recordPhase(BUILD, documentName, caseTypeId, System.nanoTime() - buildStart);
+            return render(authToken, instruction, documentName, documentName, caseTypeId);
         } catch (IOException e) {
             log.error(UNABLE_TO_CONNECT_TO_DOCMOSIS, e);
             throw e;
-        } finally {
-            closeConnection(conn);
         }
     }
 
-    private void buildScheduleInstruction(HttpURLConnection conn, BulkData bulkData) throws IOException {
+    private TornadoInstructionEntity buildScheduleInstruction(BulkData bulkData) {
         var sb = BulkHelper.buildScheduleDocumentContent(bulkData, tornadoConnection.getAccessKey());
-
-        try (var outputStreamWriter = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
-            writeOutputStream(outputStreamWriter, sb);
-        }
+        return createEntity(sb);
     }
 
-    private HttpURLConnection createConnection() throws IOException {
-        return tornadoConnection.createConnection();
+    private TornadoInstructionEntity createEntity(StringBuilder sb) {
+        return new TornadoInstructionEntity(sb);
     }
 
-    private void closeConnection(HttpURLConnection conn) {
-        if (conn != null) {
-            conn.disconnect();
+    private DocumentInfo render(String authToken, TornadoInstructionEntity instruction, String documentName,
+                                String templateName, String caseTypeId) throws IOException {
+        try (var response = execute(instruction, templateName, caseTypeId)) {
+            checkResponseStatus(response);
+            return createDocument(authToken, response, documentName, templateName, caseTypeId);
         }
     }
 
-    private DocumentInfo checkResponseStatus(String authToken, HttpURLConnection conn, String documentName,
-                                             String caseTypeId)
-            throws IOException {
-        try (var os = new ByteArrayOutputStream()) {
-            var responseCode = conn.getResponseCode();
-            if (responseCode == HTTP_OK) {
-                return createDocument(authToken, conn, documentName, os, caseTypeId);
-            } else {
-                throw new IOException(String.format("Invalid response code %d received from Tornado: %s", responseCode,
-                        conn.getResponseMessage()));
-            }
-        }
+    private CloseableHttpResponse execute(TornadoInstructionEntity instruction, String templateName,
+                                          String caseTypeId) throws IOException {
+        var start = System.nanoTime();
+        return tornadoRenderGuard.execute(() -> {
+            // Time the bulkhead wait on its own so the render phase only covers the call to Tornado
+            var callStart = System.nanoTime();
+            tornadoMetrics.recordPhase(WAIT, templateName, caseTypeId, callStart - start);
+            var response = tornadoConnection.execute(instruction);
+            tornadoMetrics.recordRequest(instruction, templateName, caseTypeId, System.nanoTime() - callStart);
+            return response;
+        });
     }
 
-    private DocumentInfo createDocument(String authToken, HttpURLConnection conn, String documentName,
-                                        ByteArrayOutputStream os, String caseTypeId) throws IOException {
-
-        byte[] bytes;
-        try (var is = conn.getInputStream()) {
-            bytes = getBytesFromInputStream(os, is);
+    private void checkResponseStatus(HttpResponse response) throws IOException {
+        var statusLine = response.getStatusLine();
+        var responseCode = statusLine.getStatusCode();
+        if (responseCode != HTTP_OK) {
+            // Drain the error body so the connection can be reused by the pool
+            EntityUtils.consumeQuietly(response.getEntity());
+            throw new IOException(String.format("Invalid response code %d received from Tornado: %s", responseCode,
+                    statusLine.getReasonPhrase()));
         }
+    }
 
-        var documentSelfPath = documentManagementService.uploadDocument(authToken, bytes, OUTPUT_FILE_NAME,
-                APPLICATION_DOCX_VALUE, caseTypeId);
-        log.info("URI documentSelfPath uploaded and created: " + documentSelfPath.toString());
-        var downloadUrl = documentManagementService.generateDownloadableURL(documentSelfPath);
-        var markup = documentManagementService.generateMarkupDocument(downloadUrl);
-        return generateDocumentInfo(documentName, documentSelfPath, markup);
+    private DocumentInfo createDocument(String authToken, HttpResponse response, String documentName,
+                                        String templateName, String caseTypeId) throws IOException {
+        try (var file = readDocument(response, templateName, caseTypeId)) {
+            var uploadStart = System.nanoTime();
+            var documentInfo = uploadDocument(authToken, file, documentName, caseTypeId);
+            tornadoMetrics.recordPhase(UPLOAD, templateName, caseTypeId, System.nanoTime() - uploadStart);
+            return documentInfo;
+        }
     }
 
-    private byte[] getBytesFromInputStream(ByteArrayOutputStream os, InputStream is) throws IOException {
-        var buffer = new byte[0xFFFF];
-        for (int len = is.read(buffer); len != -1; len = is.read(buffer)) {
-            os.write(buffer, 0, len);
+    private SpooledMultipartFile readDocument(HttpResponse response, String templateName, String caseTypeId)
+            throws IOException {
+        var readStart = System.nanoTime();
+        try (var is = response.getEntity().getContent()) {
+            var file = SpooledMultipartFile.create(FILES_NAME, OUTPUT_FILE_NAME, APPLICATION_DOCX_VALUE, is,
+                    tornadoConfiguration.getSpoolThreshold());
+            tornadoMetrics.recordPhase(READ, templateName, caseTypeId, System.nanoTime() - readStart);
+            tornadoMetrics.recordDocumentSize(templateName, caseTypeId, file.getSize());
+            return file;
         }
-        return os.toByteArray();
     }
 
     private DocumentInfo generateDocumentInfo(String documentName, URI documentSelfPath, String markupURL) {
@@ -212,9 +264,4 @@ public class TornadoService {
                 .url(ccdGatewayBaseUrl + documentSelfPath.getRawPath() + "/binary")
                 .build();
     }
-
-    private void writeOutputStream(OutputStreamWriter outputStreamWriter, StringBuilder sb) throws IOException {
-        outputStreamWriter.write(sb.toString());
-        outputStreamWriter.flush();
-    }
 }
@@ -2,12 +2,22 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
 import uk.gov.hmcts.ecm.common.idam.models.UserDetails;
 import uk.gov.hmcts.ethos.replacement.docmosis.idam.IdamApi;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
 @Component
 public class UserService implements uk.gov.hmcts.ecm.common.service.UserService {
 
+    // The token is kept with the details rather than in the attribute name, so it is not listed with the names
+    private static final String USER_DETAILS_ATTRIBUTE = UserService.class.getName() + ".userDetails";
+
     private final IdamApi idamApi;
 
     @Autowired
@@ -15,7 +25,24 @@ public class UserService implements uk.gov.hmcts.ecm.common.service.UserService
         this.idamApi = idamApi;
     }
 
+    /**
+     * Returns the details of the user, retrieving them from IDAM once per request, or again when the request uses
+     * another token.
+     */
     public UserDetails getUserDetails(String authorisation) {
-        return idamApi.retrieveUserDetails(authorisation);
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return idamApi.retrieveUserDetails(authorisation);
+        }
+        @SuppressWarnings("unchecked")
+        var cached = (Map.Entry<String, UserDetails>) requestAttributes.getAttribute(USER_DETAILS_ATTRIBUTE,
+                SCOPE_REQUEST);
+        if (cached != null && Objects.equals(cached.getKey(), authorisation)) {
+            return cached.getValue();
+        }
+        var userDetails = idamApi.retrieveUserDetails(authorisation);
+        requestAttributes.setAttribute(USER_DETAILS_ATTRIBUTE, new SimpleImmutableEntry<>(authorisation, userDetails),
+                SCOPE_REQUEST);
+        return userDetails;
     }
 }
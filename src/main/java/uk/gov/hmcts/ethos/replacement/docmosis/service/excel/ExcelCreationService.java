@@ -5,21 +5,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.DataValidationConstraint;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.util.CellRangeAddressList;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleObject;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CellStyleRegistry;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CellStyleRegistry.Style;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.EthosCaseRef;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Map;
 
 import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.CONSTRAINT_KEY;
 import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.HIDDEN_SHEET_NAME;
@@ -29,25 +29,41 @@ import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.SHEET_NA
 @Service("excelCreationService")
 public class ExcelCreationService {
 
-    public byte[] writeExcel(List<?> multipleCollection, List<String> subMultipleCollection, String leadCaseString) {
-        var workbook = new XSSFWorkbook();
-        var sheet = workbook.createSheet(SHEET_NAME);
-        var hiddenSheet = workbook.createSheet(HIDDEN_SHEET_NAME);
-
-        enableLocking(sheet);
-        enableLocking(hiddenSheet);
-
-        initializeHeaders(workbook, sheet);
-        initializeData(workbook, sheet, multipleCollection, subMultipleCollection, leadCaseString);
-
-        adjustColumnSize(sheet);
-        createHiddenSheet(workbook, hiddenSheet, subMultipleCollection);
-        addSubMultiplesValidation(workbook, sheet, multipleCollection, subMultipleCollection);
-
-        return MultiplesHelper.writeExcelFileToByteArray(workbook);
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+    /**
+     * Writes the multiple spreadsheet to the output stream. Only a window of rows is kept in memory, older rows
+     * are flushed to a compressed temporary file until the workbook is written.
+     */
+    public void writeExcel(OutputStream outputStream, List<?> multipleCollection, List<String> subMultipleCollection,
+                           String leadCaseString) throws IOException {
+        var workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
+            var sheet = workbook.createSheet(SHEET_NAME);
+            var hiddenSheet = workbook.createSheet(HIDDEN_SHEET_NAME);
+            sheet.trackColumnForAutoSizing(0);
+
+            enableLocking(sheet);
+            enableLocking(hiddenSheet);
+            workbook.getXSSFWorkbook().lockStructure();
+
+            var styles = new CellStyleRegistry(workbook);
+            initializeHeaders(styles, sheet);
+            initializeData(styles, sheet, multipleCollection, subMultipleCollection, leadCaseString);
+
+            adjustColumnSize(sheet);
+            createHiddenSheet(styles, hiddenSheet, subMultipleCollection);
+            addSubMultiplesValidation(workbook, sheet, multipleCollection, subMultipleCollection);
+
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
     }
 
-    private void enableLocking(XSSFSheet sheet) {
+    private void enableLocking(SXSSFSheet sheet) {
         sheet.lockDeleteColumns(true);
         sheet.lockDeleteRows(true);
         sheet.lockFormatCells(true);
@@ -59,38 +75,7 @@ public class ExcelCreationService {
         sheet.protectSheet(CONSTRAINT_KEY);
     }
 
-    private CellStyle getStyleForUnLocking(XSSFWorkbook workbook) {
-        CellStyle styleForUnLocking = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setColor(IndexedColors.BLUE.getIndex());
-
-        styleForUnLocking.setLocked(false);
-        styleForUnLocking.setAlignment(HorizontalAlignment.CENTER);
-        styleForUnLocking.setFont(font);
-
-        workbook.lockStructure();
-
-        return styleForUnLocking;
-    }
-
-    private static CellStyle getStyleForLocking(XSSFWorkbook workbook, boolean lead) {
-        CellStyle styleForLocking = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setColor(IndexedColors.BLACK.getIndex());
-
-        if (lead) {
-            font.setColor(IndexedColors.WHITE.getIndex());
-            styleForLocking.setFillForegroundColor(IndexedColors.GREEN.getIndex());
-            styleForLocking.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        }
-
-        styleForLocking.setAlignment(HorizontalAlignment.CENTER);
-        styleForLocking.setFont(font);
-
-        return styleForLocking;
-    }
-
-    private void adjustColumnSize(XSSFSheet sheet) {
+    private void adjustColumnSize(SXSSFSheet sheet) {
         //Adjust the column width to fit the content
         sheet.autoSizeColumn(0);
         sheet.setColumnWidth(1, 8000);
@@ -99,17 +84,18 @@ public class ExcelCreationService {
         }
     }
 
-    private void createHiddenSheet(XSSFWorkbook workbook, XSSFSheet hiddenSheet, List<String> subMultipleCollection) {
+    private void createHiddenSheet(CellStyleRegistry styles, SXSSFSheet hiddenSheet,
+                                   List<String> subMultipleCollection) {
         if (!subMultipleCollection.isEmpty()) {
-            CellStyle styleForLocking = getStyleForLocking(workbook, false);
+            CellStyle styleForLocking = styles.get(Style.LOCKED);
             for (var i = 0; i < subMultipleCollection.size(); i++) {
-                XSSFRow row = hiddenSheet.createRow(i);
+                SXSSFRow row = hiddenSheet.createRow(i);
                 createCell(row, 0, subMultipleCollection.get(i), styleForLocking);
             }
         }
     }
 
-    private void addSubMultiplesValidation(XSSFWorkbook workbook, XSSFSheet sheet, List<?> multipleCollection,
+    private void addSubMultiplesValidation(SXSSFWorkbook workbook, SXSSFSheet sheet, List<?> multipleCollection,
                                            List<String> subMultipleCollection) {
         if (!subMultipleCollection.isEmpty() && !multipleCollection.isEmpty()) {
             Name namedCell = workbook.createName();
@@ -129,9 +115,9 @@ public class ExcelCreationService {
         }
     }
 
-    private void initializeHeaders(XSSFWorkbook workbook, XSSFSheet sheet) {
-        XSSFRow rowHead = sheet.createRow(0);
-        CellStyle styleForLocking = getStyleForLocking(workbook, false);
+    private void initializeHeaders(CellStyleRegistry styles, SXSSFSheet sheet) {
+        SXSSFRow rowHead = sheet.createRow(0);
+        CellStyle styleForLocking = styles.get(Style.LOCKED);
 
         for (var j = 0; j < MultiplesHelper.HEADERS.size(); j++) {
             rowHead.createCell(j).setCellValue(MultiplesHelper.HEADERS.get(j));
@@ -139,7 +125,7 @@ public class ExcelCreationService {
         }
     }
 
-    private void createCell(XSSFRow row, int cellIndex, String value, CellStyle style) {
+    private void createCell(SXSSFRow row, int cellIndex, String value, CellStyle style) {
         Cell cell = row.createCell(cellIndex);
         cell.setCellStyle(style);
 
@@ -148,7 +134,7 @@ public class ExcelCreationService {
         }
     }
 
-    private void initializeData(XSSFWorkbook workbook, XSSFSheet sheet, List<?> multipleCollection,
+    private void initializeData(CellStyleRegistry styles, SXSSFSheet sheet, List<?> multipleCollection,
                                 List<String> subMultipleCollection, String leadCaseString) {
 
         if (multipleCollection.isEmpty()) {
@@ -164,31 +150,30 @@ public class ExcelCreationService {
         }
         String leadCase = MultiplesHelper.getCurrentLead(leadCaseString);
         final int[] rowIndex = {1};
-        orderedAllCasesList.forEach((String caseYear, Map<String, Object> caseYearList) ->
-            caseYearList.forEach((String caseNum, Object caseItem) -> {
-                if (isStringRefsList) {
-                    constructCaseExcelRow(workbook, sheet, rowIndex[0], (String) caseItem, leadCase, null,
-                            !subMultipleCollection.isEmpty());
-                } else {
-                    var multipleObject = (MultipleObject) caseItem;
-                    constructCaseExcelRow(workbook, sheet, rowIndex[0], multipleObject.getEthosCaseRef(), leadCase,
-                            multipleObject, !subMultipleCollection.isEmpty());
-                }
-                rowIndex[0]++;
-            })
-        );
+        orderedAllCasesList.forEach((EthosCaseRef ethosCaseRef, Object caseItem) -> {
+            if (isStringRefsList) {
+                constructCaseExcelRow(styles, sheet, rowIndex[0], (String) caseItem, leadCase, null,
+                        !subMultipleCollection.isEmpty());
+            } else {
+                var multipleObject = (MultipleObject) caseItem;
+                constructCaseExcelRow(styles, sheet, rowIndex[0], multipleObject.getEthosCaseRef(), leadCase,
+                        multipleObject, !subMultipleCollection.isEmpty());
+            }
+            rowIndex[0]++;
+        });
     }
 
-    private void constructCaseExcelRow(XSSFWorkbook workbook, XSSFSheet sheet, int rowIndex, String ethosCaseRef,
-                                       String leadCase, MultipleObject multipleObject, boolean hasSubMultiples) {
-        CellStyle styleForUnLocking = getStyleForUnLocking(workbook);
-        CellStyle styleForLocking = getStyleForLocking(workbook, false);
-        XSSFRow row = sheet.createRow(rowIndex);
+    private void constructCaseExcelRow(CellStyleRegistry styles, SXSSFSheet sheet, int rowIndex,
+                                       String ethosCaseRef, String leadCase, MultipleObject multipleObject,
+                                       boolean hasSubMultiples) {
+        CellStyle styleForUnLocking = styles.get(Style.UNLOCKED);
+        CellStyle styleForLocking = styles.get(Style.LOCKED);
+        SXSSFRow row = sheet.createRow(rowIndex);
         int columnIndex = 0;
 
         if (ethosCaseRef.equals(leadCase)) {
             log.info("Lead: " + leadCase);
-            CellStyle styleForLockingLead = getStyleForLocking(workbook, true);
+            CellStyle styleForLockingLead = styles.get(Style.LEAD);
             createCell(row, columnIndex, ethosCaseRef, styleForLockingLead);
         } else {
             createCell(row, columnIndex, ethosCaseRef, styleForLocking);
@@ -4,9 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
 import uk.gov.hmcts.ecm.common.model.ccd.types.UploadedDocumentType;
-import uk.gov.hmcts.ecm.common.model.helper.SchedulePayload;
 import uk.gov.hmcts.ecm.common.model.multiples.CaseImporterFile;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
@@ -14,6 +14,7 @@ import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.SignificantItemType;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.SpooledMultipartFile;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.UserService;
 
 import java.io.IOException;
@@ -21,9 +22,9 @@ import java.io.InputStream;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.SortedMap;
 
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.DATE_TIME_USER_FRIENDLY_PATTERN;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService.FILES_NAME;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -39,6 +40,9 @@ public class ExcelDocManagementService {
     @Value("${document_management.ccdCaseDocument.url}")
     private String ccdCaseDocumentUrl;
 
+    @Value("${document_management.spool-threshold:2097152}")
+    private int spoolThreshold;
+
     private final DocumentManagementService documentManagementService;
     private final ExcelCreationService excelCreationService;
     private final UserService userService;
@@ -60,17 +64,37 @@ public class ExcelDocManagementService {
 
     }
 
+    public void uploadExcelDocument(String userToken, MultipleDetails multipleDetails, MultipartFile excelFile) {
+        var multipleData = multipleDetails.getCaseData();
+        log.info("Multiple Name is: " + multipleData.getMultipleName() + "for multiple reference: "
+                + multipleData.getMultipleReference());
+        URI documentSelfPath = documentManagementService.uploadDocument(userToken, excelFile,
+                multipleDetails.getCaseTypeId());
+
+        log.info("URI documentSelfPath uploaded and created: " + documentSelfPath.toString());
+
+        log.info("Add document to multiple with reference:" + multipleData.getMultipleReference());
+
+        addDocumentToMultiple(userToken, multipleData, documentSelfPath);
+
+    }
+
     public InputStream downloadExcelDocument(String userToken, String binaryUrl) throws IOException {
 
-        var uploadedDocument = documentManagementService.downloadFile(userToken, binaryUrl);
+        var download = documentManagementService.openDocument(userToken, binaryUrl, null, null);
 
-        log.info("Downloaded excel name: " + uploadedDocument.getName());
+        log.info("Downloading excel name: " + download.getName());
 
-        return uploadedDocument.getContent().getInputStream();
+        return download.getInputStream();
 
     }
 
     private void addDocumentToMultiple(String userToken, MultipleData multipleData, URI documentSelfPath) {
+        if (multipleData.getCaseImporterFile() != null
+                && multipleData.getCaseImporterFile().getUploadedDocument() != null) {
+            // The previous version of the spreadsheet will not be read again
+            documentManagementService.evictDocument(MultiplesHelper.getExcelBinaryUrl(multipleData));
+        }
         var uploadedDocumentType = new UploadedDocumentType();
         uploadedDocumentType.setDocumentBinaryUrl(ccdCaseDocumentUrl + documentSelfPath.getRawPath() + "/binary");
         uploadedDocumentType.setDocumentFilename(MultiplesHelper.generateExcelDocumentName(multipleData));
@@ -79,20 +103,57 @@ public class ExcelDocManagementService {
         multipleData.setCaseImporterFile(populateCaseImporterFile(userToken, uploadedDocumentType));
     }
 
+    /**
+     * Writes and uploads the multiple spreadsheet, unless the spreadsheet read earlier in this request already holds
+     * the same rows, sub multiples and lead case, in which case the uploaded document is kept as it is.
+     */
     public void generateAndUploadExcel(List<?> multipleCollection, String userToken, MultipleDetails multipleDetails) {
-        List<String> subMultipleCollection = MultiplesHelper.generateSubMultipleStringCollection(
-                multipleDetails.getCaseData());
+        var multipleData = multipleDetails.getCaseData();
+        List<String> subMultipleCollection = MultiplesHelper.generateSubMultipleStringCollection(multipleData);
+        if (isExcelUnchanged(multipleCollection, multipleData, subMultipleCollection)) {
+            log.info("Excel unchanged for multiple reference: " + multipleData.getMultipleReference());
+            multipleData.setCaseCounter(String.valueOf(multipleCollection.size()));
+            return;
+        }
         writeAndUploadExcelDocument(multipleCollection, userToken, multipleDetails, subMultipleCollection);
     }
 
+    private boolean isExcelUnchanged(List<?> multipleCollection, MultipleData multipleData,
+                                     List<String> subMultipleCollection) {
+        if (multipleData.getCaseImporterFile() == null
+                || multipleData.getCaseImporterFile().getUploadedDocument() == null) {
+            return false;
+        }
+        var parsedMultiple = ParsedMultiple.get(MultiplesHelper.getExcelBinaryUrl(multipleData));
+        if (parsedMultiple == null || parsedMultiple.getError() != null
+                || !parsedMultiple.getSubMultiples().equals(subMultipleCollection)
+                || !parsedMultiple.getLeadCase().equals(MultiplesHelper.getCurrentLead(multipleData.getLeadCase()))) {
+            return false;
+        }
+        try {
+            var diff = MultipleExcelDiff.compare(parsedMultiple.readTable(), multipleCollection);
+            log.info("Excel changes for multiple reference " + multipleData.getMultipleReference() + ": " + diff);
+            return diff.isEmpty();
+        } catch (IOException e) {
+            log.warn("Unable to compare the excel for multiple reference " + multipleData.getMultipleReference(), e);
+            return false;
+        }
+    }
+
     public void writeAndUploadExcelDocument(List<?> multipleCollection, String userToken,
                                             MultipleDetails multipleDetails, List<String> subMultipleCollection) {
         var multipleData = multipleDetails.getCaseData();
         log.info("MultipleName is: " + multipleData.getMultipleName() + "for multiple reference: "
                 + multipleData.getMultipleReference());
-        byte[] excelBytes = excelCreationService.writeExcel(multipleCollection, subMultipleCollection,
-                multipleData.getLeadCase());
-        uploadExcelDocument(userToken, multipleDetails, excelBytes);
+        try (var excelFile = SpooledMultipartFile.create(FILES_NAME,
+                MultiplesHelper.generateExcelDocumentName(multipleData), APPLICATION_EXCEL_VALUE,
+                outputStream -> excelCreationService.writeExcel(outputStream, multipleCollection,
+                        subMultipleCollection, multipleData.getLeadCase()), spoolThreshold)) {
+            uploadExcelDocument(userToken, multipleDetails, excelFile);
+        } catch (IOException e) {
+            log.error("Error generating the excel");
+            throw new RuntimeException("Error generating the excel", e);
+        }
 
         log.info("Add multiple case counter for multipleReference:" + multipleData.getMultipleReference());
 
@@ -114,28 +175,29 @@ public class ExcelDocManagementService {
 
     }
 
-    public DocumentInfo writeAndUploadScheduleDocument(String userToken,
-                                                       SortedMap<String, Object> multipleObjectsFiltered,
-                                                       MultipleDetails multipleDetails,
-                                                       List<SchedulePayload> schedulePayloads) {
+    /**
+     * Writes the schedule as its rows are passed on and uploads it. Schedules too large to keep in memory are
+     * spooled to a temporary file before they are uploaded.
+     */
+    public DocumentInfo writeAndUploadScheduleDocument(String userToken, MultipleDetails multipleDetails,
+                                                       ScheduleCreationService.ScheduleRows scheduleRows)
+            throws IOException {
 
-        byte[] excelBytes = scheduleCreationService.writeSchedule(multipleDetails.getCaseData(),
-                schedulePayloads, multipleObjectsFiltered);
-
-        return uploadScheduleDocument(userToken, multipleDetails, excelBytes);
-
-    }
+        var multipleData = multipleDetails.getCaseData();
+        String documentName = MultiplesScheduleHelper.generateScheduleDocumentName(multipleData);
 
-    private DocumentInfo uploadScheduleDocument(String userToken, MultipleDetails multipleDetails, byte[] excelBytes) {
+        try (var scheduleFile = SpooledMultipartFile.create(FILES_NAME, documentName, APPLICATION_EXCEL_VALUE,
+                outputStream -> scheduleCreationService.writeSchedule(outputStream, multipleData, scheduleRows),
+                spoolThreshold)) {
 
-        String documentName = MultiplesScheduleHelper.generateScheduleDocumentName(multipleDetails.getCaseData());
+            URI documentSelfPath = documentManagementService.uploadDocument(userToken, scheduleFile,
+                    multipleDetails.getCaseTypeId());
 
-        URI documentSelfPath = documentManagementService.uploadDocument(userToken, excelBytes,
-                documentName, APPLICATION_EXCEL_VALUE, multipleDetails.getCaseTypeId());
+            log.info("URI documentSelfPath uploaded and created: " + documentSelfPath.toString());
 
-        log.info("URI documentSelfPath uploaded and created: " + documentSelfPath.toString());
+            return getScheduleDocument(documentSelfPath, documentName);
 
-        return getScheduleDocument(documentSelfPath, documentName);
+        }
 
     }
 
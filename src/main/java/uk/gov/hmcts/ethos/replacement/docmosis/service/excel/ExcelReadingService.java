@@ -1,11 +1,6 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.openxml4j.util.ZipSecureFile;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.util.NumberToTextConverter;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +9,14 @@ import uk.gov.hmcts.ecm.common.model.bulk.types.DynamicFixedListType;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleObject;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.FilterExcelType;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.SortedMap;
@@ -32,13 +31,19 @@ import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.HEADER_6
 import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.SHEET_NAME;
 import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper.SELECT_ALL;
 import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper.NOT_ALLOCATED;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.ETHOS_CASE_REF;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.FLAG_1;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.FLAG_2;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.FLAG_3;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.FLAG_4;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.SUB_MULTIPLE;
 
 @Slf4j
 @Service("excelReadingService")
 public class ExcelReadingService {
 
-    private static final String ERROR_SHEET_NAME_NOT_FOUND = "Worksheet name not found";
-    private static final String ERROR_DOCUMENT_NOT_VALID = "Document uploaded not valid";
+    static final String ERROR_SHEET_NAME_NOT_FOUND = "Worksheet name not found";
+    static final String ERROR_DOCUMENT_NOT_VALID = "Document uploaded not valid";
 
     private final ExcelDocManagementService excelDocManagementService;
 
@@ -48,7 +53,6 @@ public class ExcelReadingService {
     }
 
     public XSSFWorkbook readWorkbook(String userToken, String documentBinaryUrl) throws IOException {
-        ZipSecureFile.setMinInflateRatio(0);
         var excelInputStream =
                 excelDocManagementService.downloadExcelDocument(userToken, documentBinaryUrl);
         return new XSSFWorkbook(excelInputStream);
@@ -61,193 +65,187 @@ public class ExcelReadingService {
 
         try {
 
-            XSSFSheet datatypeSheet = checkExcelErrors(userToken, documentBinaryUrl, errors);
+            var parsedMultiple = ParsedMultiple.get(documentBinaryUrl);
+            var keptForRequest = parsedMultiple != null;
 
-            if (errors.isEmpty()) {
+            if (keptForRequest) {
 
-                populateMultipleObjects(multipleObjects, datatypeSheet, multipleData, filter);
+                log.info("Reusing excel downloaded in this request: " + documentBinaryUrl);
+
+            } else {
+
+                parsedMultiple = ParsedMultiple.read(downloadExcelFile(userToken, documentBinaryUrl),
+                        MultiplesHelper.getCurrentLead(multipleData.getLeadCase()));
+                keptForRequest = ParsedMultiple.put(documentBinaryUrl, parsedMultiple);
 
             }
 
-        } catch (IOException e) {
+            try {
 
-            throw new RuntimeException("Error reading the excel for multiple reference"
-                    + multipleData.getMultipleReference(), e);
+                if (parsedMultiple.getError() != null) {
 
-        }
+                    errors.add(parsedMultiple.getError());
 
-        return multipleObjects;
+                }
 
-    }
+                if (errors.isEmpty() && filter.equals(FilterExcelType.ALL)) {
 
-    public XSSFSheet checkExcelErrors(String userToken, String documentBinaryUrl, List<String> errors)
-            throws IOException {
+                    // Every row is returned, so there is nothing to filter and no table is built
+                    parsedMultiple.readRows((rowNum, cells) ->
+                            multipleObjects.put(cells[ETHOS_CASE_REF], getMultipleObject(cells)));
 
-        var workbook = readWorkbook(userToken, documentBinaryUrl);
+                } else if (errors.isEmpty()) {
 
-        XSSFSheet datatypeSheet = workbook.getSheet(SHEET_NAME);
+                    populateMultipleObjects(multipleObjects, parsedMultiple.readTable(), multipleData, filter);
 
-        if (datatypeSheet == null) {
+                }
 
-            errors.add(ERROR_SHEET_NAME_NOT_FOUND);
+            } finally {
 
-        } else if (!datatypeSheet.validateSheetPassword(CONSTRAINT_KEY)) {
+                if (!keptForRequest) {
+                    parsedMultiple.delete();
+                }
 
-            errors.add(ERROR_DOCUMENT_NOT_VALID);
+            }
+
+        } catch (IOException e) {
+
+            throw new RuntimeException("Error reading the excel for multiple reference"
+                    + multipleData.getMultipleReference(), e);
 
         }
 
-        return datatypeSheet;
+        return multipleObjects;
 
     }
 
-    private void getSubMultipleObjects(SortedMap<String, Object> multipleObjects, String ethosCaseRef,
-                                       String subMultiple) {
+    private File downloadExcelFile(String userToken, String documentBinaryUrl) throws IOException {
 
-        if (multipleObjects.containsKey(subMultiple)) {
-            List<String> list = (List<String>) multipleObjects.get(subMultiple);
-            list.add(ethosCaseRef);
-            multipleObjects.put(subMultiple, list);
+        var excelFile = Files.createTempFile("multiple", ".xlsx");
 
-        } else {
-            multipleObjects.put(subMultiple, new ArrayList<>(Collections.singletonList(ethosCaseRef)));
+        try (var excelInputStream = excelDocManagementService.downloadExcelDocument(userToken, documentBinaryUrl)) {
+            Files.copy(excelInputStream, excelFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(excelFile);
+            throw e;
         }
 
+        return excelFile.toFile();
+
     }
 
-    private void getFlagObjects(SortedMap<String, Object> multipleObjects, String subMultiple,
-                                String flag1, String flag2, String flag3, String flag4) {
+    public XSSFSheet checkExcelErrors(String userToken, String documentBinaryUrl, List<String> errors)
+            throws IOException {
 
-        populateTreeMapWithSet(multipleObjects, HEADER_2, subMultiple);
-        populateTreeMapWithSet(multipleObjects, HEADER_3, flag1);
-        populateTreeMapWithSet(multipleObjects, HEADER_4, flag2);
-        populateTreeMapWithSet(multipleObjects, HEADER_5, flag3);
-        populateTreeMapWithSet(multipleObjects, HEADER_6, flag4);
+        var workbook = readWorkbook(userToken, documentBinaryUrl);
 
-    }
+        XSSFSheet datatypeSheet = workbook.getSheet(SHEET_NAME);
 
-    private void populateTreeMapWithSet(SortedMap<String, Object> multipleObjects, String key, String value) {
+        if (datatypeSheet == null) {
 
-        if (multipleObjects.containsKey(key)) {
-            HashSet<String> set = (HashSet<String>) multipleObjects.get(key);
-            set.add(value);
-            multipleObjects.put(key, set);
+            errors.add(ERROR_SHEET_NAME_NOT_FOUND);
 
-        } else {
-            multipleObjects.put(key, new HashSet<>(Collections.singletonList(value)));
-        }
+        } else if (!datatypeSheet.validateSheetPassword(CONSTRAINT_KEY)) {
 
-    }
+            errors.add(ERROR_DOCUMENT_NOT_VALID);
 
-    private void filterSubMultiple(Row currentRow, MultipleData multipleData,
-                                   SortedMap<String, Object> multipleObjects) {
-        if (isMultipleInFlagsAndBelongsSubMultiple(currentRow, multipleData)) {
-            getSubMultipleObjects(multipleObjects,
-                    getCellValue(currentRow.getCell(0)),
-                    getCellValue(currentRow.getCell(1)));
-        } else {
-            if (isMultipleInFlags(currentRow, multipleData)) {
-                getSubMultipleObjects(multipleObjects,
-                        getCellValue(currentRow.getCell(0)),
-                        NOT_ALLOCATED);
-            }
         }
+
+        return datatypeSheet;
+
     }
 
-    private void populateMultipleObjects(SortedMap<String, Object> multipleObjects, XSSFSheet datatypeSheet,
+    private void populateMultipleObjects(SortedMap<String, Object> multipleObjects, MultipleTable table,
                                          MultipleData multipleData, FilterExcelType filter) {
 
-        for (Row currentRow : datatypeSheet) {
+        if (filter.equals(FilterExcelType.SUB_MULTIPLE)) {
+            populateSubMultipleObjects(multipleObjects, table, multipleData);
 
-            if (currentRow.getRowNum() == 0) {
-                continue;
+        } else if (filter.equals(FilterExcelType.FLAGS)) {
+            var rows = getMultipleInFlags(table, multipleData);
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                var ethosCaseRef = table.getValue(ETHOS_CASE_REF, row);
+                multipleObjects.put(ethosCaseRef, ethosCaseRef);
             }
 
-            if (filter.equals(FilterExcelType.SUB_MULTIPLE)) {
-                filterSubMultiple(currentRow, multipleData, multipleObjects);
-
-            } else if (filter.equals(FilterExcelType.FLAGS)) {
-                if (isMultipleInFlags(currentRow, multipleData)) {
-                    multipleObjects.put(
-                            getCellValue(currentRow.getCell(0)),
-                            getCellValue(currentRow.getCell(0)));
-                }
-
-            } else if (filter.equals(FilterExcelType.DL_FLAGS)) {
-                getFlagObjects(multipleObjects,
-                        getCellValue(currentRow.getCell(1)),
-                        getCellValue(currentRow.getCell(2)),
-                        getCellValue(currentRow.getCell(3)),
-                        getCellValue(currentRow.getCell(4)),
-                        getCellValue(currentRow.getCell(5)));
-
-            } else {
-                multipleObjects.put(
-                        getCellValue(currentRow.getCell(0)),
-                        getMultipleObject(currentRow));
+        } else if (filter.equals(FilterExcelType.DL_FLAGS)) {
+            populateFlagObjects(multipleObjects, table, HEADER_2, SUB_MULTIPLE);
+            populateFlagObjects(multipleObjects, table, HEADER_3, FLAG_1);
+            populateFlagObjects(multipleObjects, table, HEADER_4, FLAG_2);
+            populateFlagObjects(multipleObjects, table, HEADER_5, FLAG_3);
+            populateFlagObjects(multipleObjects, table, HEADER_6, FLAG_4);
 
-            }
         }
     }
 
-    private String getCellValue(Cell currentCell) {
-
-        if (currentCell.getCellType() == CellType.STRING) {
+    private void populateSubMultipleObjects(SortedMap<String, Object> multipleObjects, MultipleTable table,
+                                            MultipleData multipleData) {
 
-            return currentCell.getStringCellValue();
+        var inFlags = getMultipleInFlags(table, multipleData);
+        var inFlagsAndBelongsSubMultiple = getFlagsPassed(table, multipleData);
+        table.retainNotEqual(inFlagsAndBelongsSubMultiple, SUB_MULTIPLE, table.codeOf(""));
+        inFlags.or(inFlagsAndBelongsSubMultiple);
 
-        } else if (currentCell.getCellType() == CellType.NUMERIC) {
-
-            return NumberToTextConverter.toText(currentCell.getNumericCellValue());
+        for (int row = inFlags.nextSetBit(0); row >= 0; row = inFlags.nextSetBit(row + 1)) {
+            var subMultiple = inFlagsAndBelongsSubMultiple.get(row)
+                    ? table.getValue(SUB_MULTIPLE, row)
+                    : NOT_ALLOCATED;
+            ((List<String>) multipleObjects.computeIfAbsent(subMultiple, key -> new ArrayList<String>()))
+                    .add(table.getValue(ETHOS_CASE_REF, row));
+        }
 
-        } else {
+    }
 
-            return "";
+    private void populateFlagObjects(SortedMap<String, Object> multipleObjects, MultipleTable table, String key,
+                                     int column) {
 
+        var values = table.distinctValues(column);
+        if (!values.isEmpty()) {
+            multipleObjects.put(key, new HashSet<>(values));
         }
 
     }
 
-    private MultipleObject getMultipleObject(Row currentRow) {
+    private MultipleObject getMultipleObject(String[] cells) {
 
         return MultipleObject.builder()
-                .ethosCaseRef(getCellValue(currentRow.getCell(0)))
-                .subMultiple(getCellValue(currentRow.getCell(1)))
-                .flag1(getCellValue(currentRow.getCell(2)))
-                .flag2(getCellValue(currentRow.getCell(3)))
-                .flag3(getCellValue(currentRow.getCell(4)))
-                .flag4(getCellValue(currentRow.getCell(5)))
+                .ethosCaseRef(cells[ETHOS_CASE_REF])
+                .subMultiple(cells[SUB_MULTIPLE])
+                .flag1(cells[FLAG_1])
+                .flag2(cells[FLAG_2])
+                .flag3(cells[FLAG_3])
+                .flag4(cells[FLAG_4])
                 .build();
     }
 
-    private boolean isMultipleInFlags(Row currentRow, MultipleData multipleData) {
+    private BitSet getMultipleInFlags(MultipleTable table, MultipleData multipleData) {
 
-        return isFilterPassed(currentRow.getCell(1), multipleData.getSubMultiple())
-                && isFilterPassed(currentRow.getCell(2), multipleData.getFlag1())
-                && isFilterPassed(currentRow.getCell(3), multipleData.getFlag2())
-                && isFilterPassed(currentRow.getCell(4), multipleData.getFlag3())
-                && isFilterPassed(currentRow.getCell(5), multipleData.getFlag4());
+        var rows = getFlagsPassed(table, multipleData);
+        retainFilterPassed(table, rows, SUB_MULTIPLE, multipleData.getSubMultiple());
+        return rows;
     }
 
-    private boolean isMultipleInFlagsAndBelongsSubMultiple(Row currentRow, MultipleData multipleData) {
+    private BitSet getFlagsPassed(MultipleTable table, MultipleData multipleData) {
 
-        return !getCellValue(currentRow.getCell(1)).equals("")
-                && isFilterPassed(currentRow.getCell(2), multipleData.getFlag1())
-                && isFilterPassed(currentRow.getCell(3), multipleData.getFlag2())
-                && isFilterPassed(currentRow.getCell(4), multipleData.getFlag3())
-                && isFilterPassed(currentRow.getCell(5), multipleData.getFlag4());
+        var rows = table.allRows();
+        retainFilterPassed(table, rows, FLAG_1, multipleData.getFlag1());
+        retainFilterPassed(table, rows, FLAG_2, multipleData.getFlag2());
+        retainFilterPassed(table, rows, FLAG_3, multipleData.getFlag3());
+        retainFilterPassed(table, rows, FLAG_4, multipleData.getFlag4());
+        return rows;
     }
 
-    private boolean isFilterPassed(Cell cell, DynamicFixedListType flag) {
+    private void retainFilterPassed(MultipleTable table, BitSet rows, int column, DynamicFixedListType flag) {
 
         if (flag != null) {
 
-            return flag.getValue().getCode().equals(SELECT_ALL)
-                    || getCellValue(cell).equals(flag.getValue().getCode());
+            if (!flag.getValue().getCode().equals(SELECT_ALL)) {
+                table.retainEqual(rows, column, table.codeOf(flag.getValue().getCode()));
+            }
 
         } else {
 
-            return getCellValue(cell).equals("");
+            table.retainEqual(rows, column, table.codeOf(""));
         }
 
     }
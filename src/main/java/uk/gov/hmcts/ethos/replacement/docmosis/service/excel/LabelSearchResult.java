@@ -0,0 +1,16 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uk.gov.hmcts.ecm.common.model.labels.LabelPayloadEvent;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelSearchResult {
+    private Long total;
+    private List<LabelPayloadEvent> cases;
+}
@@ -0,0 +1,96 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import uk.gov.hmcts.ecm.common.model.multiples.MultipleObject;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.ETHOS_CASE_REF;
+
+/**
+ * Row level difference between the rows of a multiple spreadsheet and the cases about to be written to it. Rows
+ * are matched by case reference and compared cell by cell, the way they would read back once written.
+ */
+final class MultipleExcelDiff {
+
+    private final int inserted;
+    private final int deleted;
+    private final int changed;
+
+    private MultipleExcelDiff(int inserted, int deleted, int changed) {
+        this.inserted = inserted;
+        this.deleted = deleted;
+        this.changed = changed;
+    }
+
+    /**
+     * Compares the current rows with the updated collection of case references or multiple objects.
+     */
+    static MultipleExcelDiff compare(MultipleTable current, List<?> updated) {
+        var matched = new BitSet(current.size());
+        var inserted = 0;
+        var changed = 0;
+        for (Object item : updated) {
+            var cells = getCells(item);
+            var row = cells == null || cells[ETHOS_CASE_REF] == null ? -1 : current.indexOf(cells[ETHOS_CASE_REF]);
+            if (row < 0) {
+                inserted++;
+            } else {
+                matched.set(row);
+                if (!sameCells(current, row, cells)) {
+                    changed++;
+                }
+            }
+        }
+        return new MultipleExcelDiff(inserted, current.size() - matched.cardinality(), changed);
+    }
+
+    private static String[] getCells(Object item) {
+        if (item instanceof String) {
+            return new String[] {(String) item, "", "", "", "", ""};
+        } else if (item instanceof MultipleObject) {
+            var multipleObject = (MultipleObject) item;
+            return new String[] {
+                multipleObject.getEthosCaseRef(),
+                multipleObject.getSubMultiple(),
+                multipleObject.getFlag1(),
+                multipleObject.getFlag2(),
+                multipleObject.getFlag3(),
+                multipleObject.getFlag4()
+            };
+        }
+        return null;
+    }
+
+    private static boolean sameCells(MultipleTable current, int row, String[] cells) {
+        for (var column = 0; column < MultipleTable.COLUMNS; column++) {
+            // Blank cells are not written, so they read back as empty strings
+            var cell = cells[column] == null || cells[column].isBlank() ? "" : cells[column];
+            if (!cell.equals(current.getValue(column, row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        return inserted == 0 && deleted == 0 && changed == 0;
+    }
+
+    int getInserted() {
+        return inserted;
+    }
+
+    int getDeleted() {
+        return deleted;
+    }
+
+    int getChanged() {
+        return changed;
+    }
+
+    @Override
+    public String toString() {
+        return inserted + " rows inserted, " + deleted + " deleted and " + changed + " changed";
+    }
+}
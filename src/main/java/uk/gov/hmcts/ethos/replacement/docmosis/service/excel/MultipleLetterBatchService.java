@@ -0,0 +1,206 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.ecm.common.exceptions.DocumentManagementException;
+import uk.gov.hmcts.ecm.common.helpers.UtilHelper;
+import uk.gov.hmcts.ecm.common.idam.models.UserDetails;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
+import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
+import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.EthosCaseRef;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.Helper;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.EventValidationService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.SpooledMultipartFile;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.TornadoService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.UserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService.FILES_NAME;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleScheduleService.ES_PARTITION_SIZE;
+
+/**
+ * Generates the selected letter for every case filtered in a multiple. Letters are rendered concurrently on the
+ * letter batch executor and returned as a single zip document.
+ */
+@Slf4j
+@Service("multipleLetterBatchService")
+public class MultipleLetterBatchService {
+
+    private static final String MESSAGE = "Failed to generate letters for multiple : ";
+    private static final String ZIP_CONTENT_TYPE = "application/zip";
+    private static final String ZIP_EXTENSION = ".zip";
+    private static final String DOCX_EXTENSION = ".docx";
+
+    private final TornadoService tornadoService;
+    private final SingleCasesReadingService singleCasesReadingService;
+    private final EventValidationService eventValidationService;
+    private final UserService userService;
+    private final TaskExecutor letterBatchExecutor;
+
+    @Value("${document_management.spool-threshold:2097152}")
+    private int spoolThreshold;
+
+    public MultipleLetterBatchService(TornadoService tornadoService,
+                                      SingleCasesReadingService singleCasesReadingService,
+                                      EventValidationService eventValidationService,
+                                      UserService userService,
+                                      @Qualifier("letterBatchExecutor") TaskExecutor letterBatchExecutor) {
+        this.tornadoService = tornadoService;
+        this.singleCasesReadingService = singleCasesReadingService;
+        this.eventValidationService = eventValidationService;
+        this.userService = userService;
+        this.letterBatchExecutor = letterBatchExecutor;
+    }
+
+    public DocumentInfo generateLetters(String userToken, MultipleDetails multipleDetails, List<String> caseIds,
+                                        List<String> errors) {
+
+        var multipleData = multipleDetails.getCaseData();
+
+        log.info("Pull information from " + caseIds.size() + " cases filtered");
+
+        List<SubmitEvent> submitEvents = new ArrayList<>();
+        for (List<String> partitionCaseIds : Lists.partition(caseIds, ES_PARTITION_SIZE)) {
+            submitEvents.addAll(singleCasesReadingService.retrieveSingleCases(userToken,
+                    multipleDetails.getCaseTypeId(), partitionCaseIds, multipleData.getMultipleSource()));
+        }
+        // The search returns the cases in no particular order, while the letters are zipped in case order
+        submitEvents.sort(Comparator.comparing(MultipleLetterBatchService::getEthosCaseRef,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        log.info("Validating hearing number");
+
+        for (SubmitEvent submitEvent : submitEvents) {
+            for (String error : eventValidationService.validateHearingNumber(submitEvent.getCaseData(),
+                    multipleData.getCorrespondenceType(), multipleData.getCorrespondenceScotType())) {
+                errors.add(submitEvent.getCaseData().getEthosCaseReference() + ": " + error);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            return new DocumentInfo();
+        }
+
+        log.info("Generate letters for " + submitEvents.size() + " cases");
+
+        var userDetails = userService.getUserDetails(userToken);
+        var caseTypeId = UtilHelper.getCaseTypeId(multipleDetails.getCaseTypeId());
+        List<CompletableFuture<SpooledMultipartFile>> letters = new ArrayList<>();
+        for (SubmitEvent submitEvent : submitEvents) {
+            letters.add(submitLetter(userDetails, submitEvent, caseTypeId, multipleDetails));
+        }
+
+        var documentName = Helper.getDocumentName(multipleData.getCorrespondenceType(),
+                multipleData.getCorrespondenceScotType());
+        try (var zip = SpooledMultipartFile.create(FILES_NAME, documentName + ZIP_EXTENSION, ZIP_CONTENT_TYPE,
+                out -> writeZip(out, submitEvents, letters), spoolThreshold)) {
+            return tornadoService.uploadDocument(userToken, zip, documentName, caseTypeId);
+        } catch (IOException | RuntimeException ex) {
+            // Letters not rendered yet are skipped, the ones already rendered are deleted when they complete
+            letters.forEach(letter -> {
+                letter.cancel(false);
+                letter.thenAccept(MultipleLetterBatchService::closeQuietly);
+            });
+            throw new DocumentManagementException(MESSAGE + multipleDetails.getCaseId(), ex);
+        }
+    }
+
+    private static EthosCaseRef getEthosCaseRef(SubmitEvent submitEvent) {
+        var ethosCaseReference = submitEvent.getCaseData().getEthosCaseReference();
+        return isNullOrEmpty(ethosCaseReference) ? null : EthosCaseRef.parse(ethosCaseReference);
+    }
+
+    /**
+     * Renders a letter on the letter batch executor. A letter whose future is cancelled before it starts is not
+     * rendered, and one that finishes after its future was cancelled is deleted straight away.
+     */
+    private CompletableFuture<SpooledMultipartFile> submitLetter(UserDetails userDetails, SubmitEvent submitEvent,
+                                                                 String caseTypeId,
+                                                                 MultipleDetails multipleDetails) {
+        var letter = new CompletableFuture<SpooledMultipartFile>();
+        letterBatchExecutor.execute(() -> {
+            if (letter.isDone()) {
+                return;
+            }
+            try {
+                var file = renderLetter(userDetails, submitEvent, caseTypeId, multipleDetails);
+                if (!letter.complete(file)) {
+                    closeQuietly(file);
+                }
+            } catch (RuntimeException ex) {
+                letter.completeExceptionally(ex);
+            }
+        });
+        return letter;
+    }
+
+    private SpooledMultipartFile renderLetter(UserDetails userDetails, SubmitEvent submitEvent, String caseTypeId,
+                                              MultipleDetails multipleDetails) {
+        try {
+            return tornadoService.renderDocument(userDetails, submitEvent.getCaseData(), caseTypeId,
+                    multipleDetails.getCaseData().getCorrespondenceType(),
+                    multipleDetails.getCaseData().getCorrespondenceScotType(),
+                    multipleDetails.getCaseData());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeZip(OutputStream outputStream, List<SubmitEvent> submitEvents,
+                          List<CompletableFuture<SpooledMultipartFile>> letters) throws IOException {
+        var zipOutputStream = new ZipOutputStream(outputStream);
+        // The letters are already compressed documents
+        zipOutputStream.setLevel(Deflater.BEST_SPEED);
+        Set<String> entryNames = new HashSet<>();
+        for (var i = 0; i < letters.size(); i++) {
+            try (var letter = letters.get(i).join(); var inputStream = letter.getInputStream()) {
+                zipOutputStream.putNextEntry(new ZipEntry(getEntryName(submitEvents.get(i), entryNames)));
+                inputStream.transferTo(zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+        }
+        zipOutputStream.finish();
+    }
+
+    /**
+     * Names the letter of a case after its case reference, or its case id when it has none, numbering repeated
+     * names so every entry of the zip is unique.
+     */
+    private static String getEntryName(SubmitEvent submitEvent, Set<String> entryNames) {
+        var ethosCaseReference = submitEvent.getCaseData().getEthosCaseReference();
+        var baseName = isNullOrEmpty(ethosCaseReference)
+                ? String.valueOf(submitEvent.getCaseId())
+                : ethosCaseReference.replace('/', '-');
+        var entryName = baseName + DOCX_EXTENSION;
+        for (var copy = 2; !entryNames.add(entryName); copy++) {
+            entryName = baseName + " (" + copy + ")" + DOCX_EXTENSION;
+        }
+        return entryName;
+    }
+
+    private static void closeQuietly(SpooledMultipartFile letter) {
+        try {
+            letter.close();
+        } catch (IOException ex) {
+            log.warn("Unable to delete spooled letter", ex);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ecm.common.exceptions.DocumentManagementException;
 import uk.gov.hmcts.ecm.common.helpers.UtilHelper;
@@ -40,6 +41,10 @@ public class MultipleLetterService {
     private final SingleCasesReadingService singleCasesReadingService;
     private final EventValidationService eventValidationService;
     private final MultipleDynamicListFlagsService multipleDynamicListFlagsService;
+    private final MultipleLetterBatchService multipleLetterBatchService;
+
+    @Value("${multiple-letters.batch.enabled:false}")
+    private boolean batchLettersEnabled;
 
     public DocumentInfo bulkLetterLogic(String userToken, MultipleDetails multipleDetails, List<String> errors,
                                         boolean validation) {
@@ -152,6 +157,15 @@ public class MultipleLetterService {
                                      SortedMap<String, Object> multipleObjects,
                                      List<String> errors, DocumentInfo documentInfo) {
 
+        if (batchLettersEnabled) {
+
+            log.info("Generate letters for all cases filtered");
+
+            return multipleLetterBatchService.generateLetters(userToken, multipleDetails,
+                    new ArrayList<>(multipleObjects.keySet()), errors);
+
+        }
+
         log.info("Pull information from first case filtered");
 
         var submitEvent = singleCasesReadingService.retrieveSingleCase(userToken,
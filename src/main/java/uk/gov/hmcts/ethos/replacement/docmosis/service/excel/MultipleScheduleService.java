@@ -1,42 +1,72 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 
 import com.google.common.collect.Lists;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
 import uk.gov.hmcts.ecm.common.model.helper.SchedulePayload;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.EthosCaseRef;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.FilterExcelType;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.tasks.ScheduleCallable;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 import static java.util.stream.Collectors.toList;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.NO_CASES_SEARCHED;
 
 @Slf4j
-@RequiredArgsConstructor
 @Service("multipleScheduleService")
 public class MultipleScheduleService {
 
     private final ExcelReadingService excelReadingService;
     private final SingleCasesReadingService singleCasesReadingService;
     private final ExcelDocManagementService excelDocManagementService;
+    private final TaskExecutor scheduleFetchExecutor;
 
     public static final int ES_PARTITION_SIZE = 500;
-    public static final int THREAD_NUMBER = 20;
-    public static final int SCHEDULE_LIMIT_CASES = 10000;
+
+    private static final String ERROR_GENERATING_SCHEDULES = "Error Generating Schedules";
+
+    @Value("${multiple-schedule.fetch.partitions-in-flight:5}")
+    private int partitionsInFlight;
+
+    @Value("${multiple-schedule.fetch.timeout:120000}")
+    private long fetchTimeout;
+
+    @Value("${multiple-schedule.case-limit:50000}")
+    private int scheduleCaseLimit;
+
+    public MultipleScheduleService(ExcelReadingService excelReadingService,
+                                   SingleCasesReadingService singleCasesReadingService,
+                                   ExcelDocManagementService excelDocManagementService,
+                                   @Qualifier("scheduleFetchExecutor") TaskExecutor scheduleFetchExecutor) {
+        this.excelReadingService = excelReadingService;
+        this.singleCasesReadingService = singleCasesReadingService;
+        this.excelDocManagementService = excelDocManagementService;
+        this.scheduleFetchExecutor = scheduleFetchExecutor;
+    }
 
     public DocumentInfo bulkScheduleLogic(String userToken, MultipleDetails multipleDetails, List<String> errors) {
 
@@ -57,26 +87,22 @@ public class MultipleScheduleService {
 
         log.info("Validate limit of cases to generate schedules");
 
-        if (multipleObjects.keySet().size() > SCHEDULE_LIMIT_CASES) {
+        if (multipleObjects.keySet().size() > scheduleCaseLimit) {
 
-            log.info("Number of cases exceed the limit of " + SCHEDULE_LIMIT_CASES);
+            log.info("Number of cases exceed the limit of " + scheduleCaseLimit);
 
-            errors.add("Number of cases exceed the limit of " + SCHEDULE_LIMIT_CASES);
-
-        } else {
+            errors.add("Number of cases exceed the limit of " + scheduleCaseLimit);
 
-            log.info("Pull information from single cases");
+        } else if (multipleObjects.keySet().isEmpty()) {
 
-            List<String> sortedCaseIdsCollection =
-                    sortCollectionByEthosCaseRef(getCaseIdCollectionFromFilter(multipleObjects, filterExcelType));
+            errors.add(NO_CASES_SEARCHED);
 
-            List<SchedulePayload> schedulePayloads =
-                    getSchedulePayloadCollection(userToken, multipleDetails.getCaseTypeId(),
-                            sortedCaseIdsCollection, errors);
+        } else {
 
-            log.info("Generate schedule");
+            log.info("Generate schedule from single cases");
 
-            documentInfo = generateSchedule(userToken, multipleObjects, multipleDetails, schedulePayloads, errors);
+            documentInfo = generateSchedule(userToken, multipleDetails,
+                    getScheduleCases(multipleObjects, filterExcelType), errors);
 
         }
 
@@ -88,98 +114,161 @@ public class MultipleScheduleService {
 
     }
 
-    private List<String> sortCollectionByEthosCaseRef(List<String> caseIdsCollection) {
+    private static List<String> sortCollectionByEthosCaseRef(List<String> caseIdsCollection) {
         return caseIdsCollection
                 .stream()
-                .sorted(Comparator.comparing(ethosCaseRef -> ethosCaseRef,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(ethosCaseRef -> ethosCaseRef == null ? null : EthosCaseRef.parse(ethosCaseRef))
+                .sorted(Comparator.nullsLast(Comparator.naturalOrder()))
+                .map(ethosCaseRef -> ethosCaseRef == null ? null : ethosCaseRef.toString())
                 .collect(toList());
     }
 
-    private List<String> getCaseIdCollectionFromFilter(SortedMap<String, Object> multipleObjects,
-                                                       FilterExcelType filterExcelType) {
+    private ScheduleCases getScheduleCases(SortedMap<String, Object> multipleObjects,
+                                           FilterExcelType filterExcelType) {
+
+        var scheduleCases = new ScheduleCases();
 
         if (filterExcelType.equals(FilterExcelType.FLAGS)) {
 
-            return new ArrayList<>(multipleObjects.keySet());
+            scheduleCases.addCases(null, new ArrayList<>(multipleObjects.keySet()));
 
         } else {
 
-            return MultiplesScheduleHelper.getSubMultipleCaseIds(multipleObjects);
+            multipleObjects.forEach((subMultipleName, caseIds) ->
+                    scheduleCases.addCases(subMultipleName, (List<String>) caseIds));
 
         }
 
-    }
+        log.info("CaseIdCollectionSize: " + scheduleCases.caseIds.size());
 
-    private List<SchedulePayload> getSchedulePayloadCollection(String userToken, String caseTypeId,
-                                                               List<String> caseIdCollection, List<String> errors) {
+        return scheduleCases;
 
-        ExecutorService executor = Executors.newFixedThreadPool(THREAD_NUMBER);
+    }
 
-        List<Future<HashSet<SchedulePayload>>> resultList = new ArrayList<>();
+    private DocumentInfo generateSchedule(String userToken, MultipleDetails multipleDetails,
+                                          ScheduleCases scheduleCases, List<String> errors) {
 
-        log.info("CaseIdCollectionSize: " + caseIdCollection.size());
+        try {
 
-        for (List<String> partitionCaseIds : Lists.partition(caseIdCollection, ES_PARTITION_SIZE)) {
+            return excelDocManagementService.writeAndUploadScheduleDocument(userToken, multipleDetails,
+                    writer -> fetchSchedulePayloads(userToken, multipleDetails.getCaseTypeId(),
+                            scheduleCases.caseIds,
+                            (partitionCaseIds, schedulePayloads) ->
+                                    scheduleCases.writeRows(partitionCaseIds, schedulePayloads, writer)));
 
-            var scheduleCallable =
-                    new ScheduleCallable(singleCasesReadingService, userToken, caseTypeId, partitionCaseIds);
+        } catch (IOException e) {
 
-            resultList.add(executor.submit(scheduleCallable));
+            errors.add(ERROR_GENERATING_SCHEDULES);
 
-        }
+            log.error(e.getMessage(), e);
 
-        List<SchedulePayload> result = new ArrayList<>();
+            return new DocumentInfo();
 
-        for (Future<HashSet<SchedulePayload>> fut : resultList) {
+        }
 
-            try {
+    }
 
-                HashSet<SchedulePayload> schedulePayloads = fut.get();
+    /**
+     * Searches the cases partition by partition on the shared schedule fetch executor and passes each partition on
+     * in the order of the case references, whatever order the searches complete in. Only a few partitions of a
+     * request are in flight or waiting to be passed on at a time, so memory stays bounded however many cases there
+     * are. When a partition fails or the request runs out of time the remaining partitions are cancelled.
+     */
+    private void fetchSchedulePayloads(String userToken, String caseTypeId, List<String> caseIdCollection,
+                                       BiConsumer<List<String>, Set<SchedulePayload>> consumer)
+            throws IOException {
+
+        List<List<String>> partitions = Lists.partition(caseIdCollection, ES_PARTITION_SIZE);
+        var completionService = new ExecutorCompletionService<HashSet<SchedulePayload>>(scheduleFetchExecutor);
+        Map<Future<HashSet<SchedulePayload>>, Integer> pending = new HashMap<>();
+        Map<Integer, HashSet<SchedulePayload>> completed = new HashMap<>();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fetchTimeout);
+        var submitted = 0;
+        var passedOn = 0;
+
+        try {
+
+            while (passedOn < partitions.size()) {
+
+                while (submitted < partitions.size()
+                        && pending.size() + completed.size() < Math.max(1, partitionsInFlight)) {
+                    pending.put(completionService.submit(new ScheduleCallable(singleCasesReadingService, userToken,
+                            caseTypeId, partitions.get(submitted))), submitted);
+                    submitted++;
+                }
+
+                var future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    throw new TimeoutException("Schedule search timed out after " + fetchTimeout + " ms");
+                }
+
+                HashSet<SchedulePayload> schedulePayloads = future.get();
 
                 log.info("PartialSize: " + schedulePayloads.size());
 
-                result.addAll(schedulePayloads);
+                completed.put(pending.remove(future), schedulePayloads);
 
-            } catch (InterruptedException | ExecutionException e) {
-
-                errors.add("Error Generating Schedules");
-
-                log.error(e.getMessage(), e);
-
-                Thread.currentThread().interrupt();
+                while (completed.containsKey(passedOn)) {
+                    consumer.accept(partitions.get(passedOn), completed.remove(passedOn));
+                    passedOn++;
+                }
 
             }
 
-        }
+        } catch (ExecutionException | CancellationException | TimeoutException e) {
 
-        executor.shutdown();
+            throw new IOException(ERROR_GENERATING_SCHEDULES, e);
 
-        log.info("ResultSize: " + result.size());
+        } catch (InterruptedException e) {
 
-        return result;
+            Thread.currentThread().interrupt();
 
-    }
+            throw new InterruptedIOException(ERROR_GENERATING_SCHEDULES);
 
-    private DocumentInfo generateSchedule(String userToken, SortedMap<String, Object> multipleObjectsFiltered,
-                                          MultipleDetails multipleDetails, List<SchedulePayload> schedulePayloads,
-                                          List<String> errors) {
+        } finally {
 
-        var documentInfo = new DocumentInfo();
+            pending.keySet().forEach(future -> future.cancel(true));
 
-        if (!multipleObjectsFiltered.keySet().isEmpty()) {
+        }
 
-            documentInfo = excelDocManagementService.writeAndUploadScheduleDocument(userToken,
-                    multipleObjectsFiltered, multipleDetails, schedulePayloads);
+    }
 
-        } else {
+    /**
+     * Case references in the order their rows are written, with the position each sub multiple starts at.
+     */
+    private static final class ScheduleCases {
 
-            errors.add(NO_CASES_SEARCHED);
+        private final List<String> caseIds = new ArrayList<>();
+        private final Map<Integer, String> subMultipleStarts = new HashMap<>();
+        private int written;
 
+        private void addCases(String subMultipleName, List<String> subMultipleCaseIds) {
+            if (subMultipleName != null) {
+                subMultipleStarts.put(caseIds.size(), subMultipleName);
+            }
+            caseIds.addAll(sortCollectionByEthosCaseRef(subMultipleCaseIds));
         }
 
-        return documentInfo;
-
+        /**
+         * Writes the rows of the next partition of cases. Cases the search did not return are left out.
+         */
+        private void writeRows(List<String> partitionCaseIds, Set<SchedulePayload> schedulePayloads,
+                               ScheduleCreationService.ScheduleRowWriter writer) {
+            Map<String, SchedulePayload> schedulePayloadMap = new HashMap<>();
+            schedulePayloads.forEach(schedulePayload ->
+                    schedulePayloadMap.put(schedulePayload.getEthosCaseRef(), schedulePayload));
+
+            for (String caseId : partitionCaseIds) {
+                var subMultipleName = subMultipleStarts.get(written++);
+                if (subMultipleName != null) {
+                    writer.startSubMultiple(subMultipleName);
+                }
+                var schedulePayload = schedulePayloadMap.get(caseId);
+                if (schedulePayload != null) {
+                    writer.addRow(schedulePayload);
+                }
+            }
+        }
     }
 
 }
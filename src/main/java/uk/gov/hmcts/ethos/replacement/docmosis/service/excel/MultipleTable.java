@@ -0,0 +1,193 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column store for the rows of a multiple spreadsheet. Every cell is stored as an int code into one sorted
+ * dictionary of the distinct values, so sub multiples and flags repeated across thousands of cases are only held
+ * once. Codes compare in the same order as the values they stand for, and rows are indexed by case reference.
+ * A table is built for a single filtered read or comparison and is not kept once that is done.
+ */
+final class MultipleTable {
+
+    public static final int ETHOS_CASE_REF = 0;
+    public static final int SUB_MULTIPLE = 1;
+    public static final int FLAG_1 = 2;
+    public static final int FLAG_2 = 3;
+    public static final int FLAG_3 = 4;
+    public static final int FLAG_4 = 5;
+    public static final int COLUMNS = 6;
+
+    private final String[] dictionary;
+    private final int[][] columns;
+    private final int size;
+    private final int[] caseRefIndex;
+
+    private MultipleTable(String[] dictionary, int[][] columns, int size) {
+        this.dictionary = dictionary;
+        this.columns = columns;
+        this.size = size;
+        this.caseRefIndex = sortByColumn(columns[ETHOS_CASE_REF], size);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getValue(int column, int row) {
+        return dictionary[columns[column][row]];
+    }
+
+    public int getCode(int column, int row) {
+        return columns[column][row];
+    }
+
+    /**
+     * Returns the code of a value, or -1 when no cell holds it.
+     */
+    public int codeOf(String value) {
+        var code = Arrays.binarySearch(dictionary, value);
+        return code < 0 ? -1 : code;
+    }
+
+    /**
+     * Returns the first row holding the case reference, or -1 when the multiple does not contain it.
+     */
+    public int indexOf(String ethosCaseRef) {
+        var code = codeOf(ethosCaseRef);
+        if (code < 0) {
+            return -1;
+        }
+        var column = columns[ETHOS_CASE_REF];
+        var low = 0;
+        var high = size;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (column[caseRefIndex[mid]] < code) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < size && column[caseRefIndex[low]] == code ? caseRefIndex[low] : -1;
+    }
+
+    public BitSet allRows() {
+        var rows = new BitSet(size);
+        rows.set(0, size);
+        return rows;
+    }
+
+    /**
+     * Clears the rows whose cell in the column does not hold the code.
+     */
+    public void retainEqual(BitSet rows, int column, int code) {
+        var values = columns[column];
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            if (values[row] != code) {
+                rows.clear(row);
+            }
+        }
+    }
+
+    /**
+     * Clears the rows whose cell in the column holds the code.
+     */
+    public void retainNotEqual(BitSet rows, int column, int code) {
+        var values = columns[column];
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            if (values[row] == code) {
+                rows.clear(row);
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct values of a column.
+     */
+    public List<String> distinctValues(int column) {
+        var seen = new BitSet(dictionary.length);
+        var values = columns[column];
+        for (var row = 0; row < size; row++) {
+            seen.set(values[row]);
+        }
+        List<String> distinct = new ArrayList<>(seen.cardinality());
+        for (int code = seen.nextSetBit(0); code >= 0; code = seen.nextSetBit(code + 1)) {
+            distinct.add(dictionary[code]);
+        }
+        return distinct;
+    }
+
+    private static int[] sortByColumn(int[] column, int size) {
+        var keys = new long[size];
+        for (var row = 0; row < size; row++) {
+            keys[row] = (long) column[row] << 32 | row;
+        }
+        Arrays.sort(keys);
+        var rows = new int[size];
+        for (var i = 0; i < size; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return rows;
+    }
+
+    static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final int[][] columns = new int[COLUMNS][INITIAL_CAPACITY];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a row from the cell values of the case reference, sub multiple and flag columns, in that order.
+         * Missing or null cells are stored as empty strings.
+         */
+        public Builder addRow(String... cells) {
+            if (size == columns[0].length) {
+                for (var column = 0; column < COLUMNS; column++) {
+                    columns[column] = Arrays.copyOf(columns[column], size * 2);
+                }
+            }
+            for (var column = 0; column < COLUMNS; column++) {
+                var value = column < cells.length && cells[column] != null ? cells[column] : "";
+                columns[column][size] = codes.computeIfAbsent(value, key -> {
+                    values.add(key);
+                    return values.size() - 1;
+                });
+            }
+            size++;
+            return this;
+        }
+
+        public MultipleTable build() {
+            var dictionary = values.toArray(new String[0]);
+            Arrays.sort(dictionary);
+            var remap = new int[dictionary.length];
+            for (var code = 0; code < dictionary.length; code++) {
+                remap[codes.get(dictionary[code])] = code;
+            }
+            var sortedColumns = new int[COLUMNS][];
+            for (var column = 0; column < COLUMNS; column++) {
+                sortedColumns[column] = new int[size];
+                for (var row = 0; row < size; row++) {
+                    sortedColumns[column][row] = remap[columns[column][row]];
+                }
+            }
+            return new MultipleTable(dictionary, sortedColumns, size);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.CONSTRAINT_KEY;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.HIDDEN_SHEET_NAME;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.SHEET_NAME;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.ExcelReadingService.ERROR_DOCUMENT_NOT_VALID;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.ExcelReadingService.ERROR_SHEET_NAME_NOT_FOUND;
+
+/**
+ * Multiple spreadsheet as it was downloaded in the current request: the local copy of the document, the sub
+ * multiples offered in the dropdown and the lead case, or the reason it could not be read. It is held in the request
+ * attributes so the spreadsheet is only downloaded once per request. Its rows are not kept, they are streamed from
+ * the local copy each time they are read, so memory does not grow with the number of cases. The local copy is
+ * deleted when the request completes.
+ */
+@Slf4j
+final class ParsedMultiple {
+
+    private static final String ATTRIBUTE_PREFIX = ParsedMultiple.class.getName() + ".";
+
+    private final File excelFile;
+    private final List<String> subMultiples;
+    private final String leadCase;
+    private final String error;
+
+    private ParsedMultiple(File excelFile, List<String> subMultiples, String leadCase, String error) {
+        this.excelFile = excelFile;
+        this.subMultiples = subMultiples;
+        this.leadCase = leadCase;
+        this.error = error;
+    }
+
+    static ParsedMultiple of(File excelFile, List<String> subMultiples, String leadCase) {
+        return new ParsedMultiple(excelFile, subMultiples, leadCase, null);
+    }
+
+    static ParsedMultiple error(String error) {
+        return new ParsedMultiple(null, List.of(), "", error);
+    }
+
+    /**
+     * Checks the downloaded spreadsheet and reads its sub multiples. The parsed multiple takes over the file, which
+     * is deleted straight away when the spreadsheet is not valid.
+     */
+    static ParsedMultiple read(File excelFile, String leadCase) throws IOException {
+
+        ParsedMultiple parsedMultiple = null;
+
+        try {
+
+            var opcPackage = open(excelFile);
+
+            try {
+
+                var datatypeSheet = StreamingSheetReader.read(opcPackage, SHEET_NAME, 1, (rowNum, cells) -> { });
+
+                if (datatypeSheet.isEmpty()) {
+
+                    parsedMultiple = error(ERROR_SHEET_NAME_NOT_FOUND);
+
+                } else if (!datatypeSheet.get().validateSheetPassword(CONSTRAINT_KEY)) {
+
+                    parsedMultiple = error(ERROR_DOCUMENT_NOT_VALID);
+
+                } else {
+
+                    List<String> subMultiples = new ArrayList<>();
+                    StreamingSheetReader.read(opcPackage, HIDDEN_SHEET_NAME, 1,
+                            (rowNum, cells) -> subMultiples.add(cells[0]));
+                    parsedMultiple = of(excelFile, subMultiples, leadCase);
+
+                }
+
+            } finally {
+
+                // Read only packages are discarded rather than closed, as closing would try to save them
+                opcPackage.revert();
+
+            }
+
+        } finally {
+
+            if (parsedMultiple == null || parsedMultiple.excelFile == null) {
+                Files.deleteIfExists(excelFile.toPath());
+            }
+
+        }
+
+        return parsedMultiple;
+
+    }
+
+    /**
+     * Returns the spreadsheet downloaded earlier in this request, or null when it has not been downloaded or there
+     * is no request.
+     */
+    static ParsedMultiple get(String documentBinaryUrl) {
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        return requestAttributes == null
+                ? null
+                : (ParsedMultiple) requestAttributes.getAttribute(ATTRIBUTE_PREFIX + documentBinaryUrl, SCOPE_REQUEST);
+    }
+
+    /**
+     * Keeps the spreadsheet until the request completes. Returns false when there is no request, in which case the
+     * caller deletes it once read.
+     */
+    static boolean put(String documentBinaryUrl, ParsedMultiple parsedMultiple) {
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return false;
+        }
+        var attributeName = ATTRIBUTE_PREFIX + documentBinaryUrl;
+        requestAttributes.setAttribute(attributeName, parsedMultiple, SCOPE_REQUEST);
+        requestAttributes.registerDestructionCallback(attributeName, parsedMultiple::delete, SCOPE_REQUEST);
+        return true;
+    }
+
+    /**
+     * Streams the case reference, sub multiple and flag columns of each data row to the handler.
+     */
+    void readRows(StreamingSheetReader.RowHandler rowHandler) throws IOException {
+        var opcPackage = open(excelFile);
+        try {
+            StreamingSheetReader.read(opcPackage, SHEET_NAME, MultipleTable.COLUMNS, (rowNum, cells) -> {
+                if (rowNum > 0) {
+                    rowHandler.handle(rowNum, cells);
+                }
+            });
+        } finally {
+            opcPackage.revert();
+        }
+    }
+
+    /**
+     * Streams the data rows into a table, for reads that filter them.
+     */
+    MultipleTable readTable() throws IOException {
+        var tableBuilder = MultipleTable.builder();
+        readRows((rowNum, cells) -> tableBuilder.addRow(cells));
+        return tableBuilder.build();
+    }
+
+    void delete() {
+        if (excelFile != null) {
+            try {
+                Files.deleteIfExists(excelFile.toPath());
+            } catch (IOException e) {
+                log.warn("Unable to delete the local copy of a multiple spreadsheet " + excelFile, e);
+            }
+        }
+    }
+
+    private static OPCPackage open(File excelFile) throws IOException {
+        try {
+            return OPCPackage.open(excelFile, PackageAccess.READ);
+        } catch (InvalidFormatException | InvalidOperationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    List<String> getSubMultiples() {
+        return subMultiples;
+    }
+
+    String getLeadCase() {
+        return leadCase;
+    }
+
+    String getError() {
+        return error;
+    }
+}
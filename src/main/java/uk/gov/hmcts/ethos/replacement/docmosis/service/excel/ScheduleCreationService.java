@@ -3,22 +3,21 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ecm.common.model.helper.SchedulePayload;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
-import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper;
-import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CellStyleRegistry;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CellStyleRegistry.Style;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesSchedulePrinter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.LIST_CASES_CONFIG;
@@ -40,47 +39,78 @@ import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleH
 @Service("scheduleCreationService")
 public class ScheduleCreationService {
 
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+    private static final int TABLE_TITLE_ROW = 3;
+    private static final int SUB_MULTIPLE_STARTING_ROW = 2;
+    private static final List<Integer> AUTO_SIZED_COLUMNS = List.of(0, 1, 2);
+
     private final List<String> multipleHeaders = new ArrayList<>(Arrays.asList(HEADER_1, HEADER_2));
     private final List<String> multipleDetailedHeaders = new ArrayList<>(Arrays.asList(HEADER_1, HEADER_3, HEADER_4));
     private final List<String> subMultipleHeaders = new ArrayList<>(Arrays.asList(HEADER_1, HEADER_5, HEADER_6));
 
-    public byte[] writeSchedule(MultipleData multipleData, List<SchedulePayload> schedulePayloads,
-                                SortedMap<String, Object> multipleObjectsFiltered) {
-        var workbook = new XSSFWorkbook();
-        var sheet = workbook.createSheet(SCHEDULE_SHEET_NAME);
+    /**
+     * Receives the rows of a schedule in the order they are written. Sub multiple schedules start each sub
+     * multiple before passing on its rows.
+     */
+    public interface ScheduleRowWriter {
+        void startSubMultiple(String subMultipleName);
 
-        initializeHeaders(workbook, sheet, multipleData);
+        void addRow(SchedulePayload schedulePayload);
+    }
 
-        if (Arrays.asList(MULTIPLE_SCHEDULE_CONFIG, MULTIPLE_SCHEDULE_DETAILED_CONFIG)
-                .contains(multipleData.getScheduleDocName())) {
-            initializeData(workbook, sheet, schedulePayloads, multipleData.getScheduleDocName());
-        } else {
-            initializeSubMultipleDataLogic(workbook, sheet, multipleData, schedulePayloads, multipleObjectsFiltered);
-        }
+    /**
+     * Passes the rows of a schedule on to the writer, in order.
+     */
+    @FunctionalInterface
+    public interface ScheduleRows {
+        void writeTo(ScheduleRowWriter writer) throws IOException;
+    }
+
+    /**
+     * Writes the schedule to the output stream as its rows are passed on. Only a window of rows is kept in memory,
+     * older rows are flushed to a compressed temporary file until the workbook is written.
+     */
+    public void writeSchedule(OutputStream outputStream, MultipleData multipleData, ScheduleRows scheduleRows)
+            throws IOException {
+        var workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
+            var sheet = workbook.createSheet(SCHEDULE_SHEET_NAME);
+            sheet.trackColumnsForAutoSizing(AUTO_SIZED_COLUMNS);
+
+            var styles = new CellStyleRegistry(workbook);
+            initializeHeaders(styles, sheet, multipleData);
 
-        MultiplesSchedulePrinter.adjustColumnSize(sheet);
+            log.info("Schedule " + multipleData.getScheduleDocName());
+            scheduleRows.writeTo(new SheetRowWriter(styles, sheet, multipleData));
 
-        return MultiplesHelper.writeExcelFileToByteArray(workbook);
+            MultiplesSchedulePrinter.adjustColumnSize(sheet);
+
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
     }
 
-    private void initializeHeaders(XSSFWorkbook workbook, XSSFSheet sheet, MultipleData multipleData) {
+    private void initializeHeaders(CellStyleRegistry styles, SXSSFSheet sheet, MultipleData multipleData) {
         String multipleTitle = multipleData.getMultipleReference() + " - " + multipleData.getMultipleName();
-        XSSFRow rowHead1 = sheet.createRow(0);
+        SXSSFRow rowHead1 = sheet.createRow(0);
 
         if (multipleData.getScheduleDocName().equals(LIST_CASES_CONFIG)) {
-            var header1CellStyle = MultiplesSchedulePrinter.getHeader1CellStyle(workbook);
+            var header1CellStyle = styles.get(Style.HEADER_1);
             createCell(rowHead1, 0, "List of cases for ", header1CellStyle);
             createCell(rowHead1, 1, multipleTitle, header1CellStyle);
         } else {
-            var header2CellStyle = MultiplesSchedulePrinter.getHeader2CellStyle(workbook);
-            createCell(rowHead1, 1, HEADER_SCHEDULE, MultiplesSchedulePrinter.getHeader1CellStyle(workbook));
-            XSSFRow rowHead2 = sheet.createRow(1);
+            var header2CellStyle = styles.get(Style.HEADER_2);
+            createCell(rowHead1, 1, HEADER_SCHEDULE, styles.get(Style.HEADER_1));
+            SXSSFRow rowHead2 = sheet.createRow(1);
             createCell(rowHead2, 0, "Multiple: ", header2CellStyle);
             createCell(rowHead2, 1, multipleTitle, header2CellStyle);
         }
     }
 
-    private void createCell(XSSFRow row, int cellIndex, String value, CellStyle style) {
+    private void createCell(SXSSFRow row, int cellIndex, String value, CellStyle style) {
         Cell cell = row.createCell(cellIndex);
         cell.setCellValue(value);
         cell.setCellStyle(style);
@@ -90,64 +120,6 @@ public class ScheduleCreationService {
         return schedulePayload.getClaimantName() + " -v- " + schedulePayload.getRespondentName();
     }
 
-    private void initializeData(XSSFWorkbook workbook, XSSFSheet sheet,
-                                List<SchedulePayload> schedulePayloads, String scheduleTemplate) {
-
-        var cellStyle = MultiplesSchedulePrinter.getRowCellStyle(workbook);
-        var startingRow = 4;
-        XSSFRow tableTitleRow = sheet.createRow(3);
-
-        if (schedulePayloads.isEmpty()) {
-            return;
-        }
-
-        var orderedScheduleCollection = MultiplesHelper.createCollectionOrderedByCaseRef(schedulePayloads);
-
-        if (scheduleTemplate.equals(MULTIPLE_SCHEDULE_CONFIG)) {
-            log.info("Multiple schedule");
-            for (var j = 0; j < multipleHeaders.size(); j++) {
-                createCell(tableTitleRow, j, multipleHeaders.get(j),
-                        MultiplesSchedulePrinter.getHeader3CellStyle(workbook));
-            }
-
-            final int[] rowIndex = {0};
-            orderedScheduleCollection.forEach((String caseYear, Map<String, Object> scheduleYearList) ->
-                    scheduleYearList.forEach((String caseNum, Object item) -> {
-                        var columnIndex = 0;
-                        var schedulePayload = (SchedulePayload) item;
-                        XSSFRow row = sheet.createRow(rowIndex[0] + startingRow);
-                        createCell(row, columnIndex, schedulePayload.getEthosCaseRef(), cellStyle);
-                        columnIndex++;
-                        createCell(row, columnIndex, getClaimantVsRespondent(schedulePayload), cellStyle);
-                        rowIndex[0]++;
-                    })
-            );
-        } else if (scheduleTemplate.equals(MULTIPLE_SCHEDULE_DETAILED_CONFIG)) {
-
-            log.info("Multiple schedule detailed");
-            for (var j = 0; j < multipleDetailedHeaders.size(); j++) {
-                createCell(tableTitleRow, j, multipleDetailedHeaders.get(j),
-                        MultiplesSchedulePrinter.getHeader3CellStyle(workbook));
-            }
-
-            final int[] rowIndex = {0};
-            orderedScheduleCollection.forEach((String caseYear, Map<String, Object> scheduleYearList) ->
-                    scheduleYearList.forEach((String caseNum, Object item) -> {
-                        var columnIndex = 0;
-                        var schedulePayload = (SchedulePayload) item;
-                        XSSFRow row = sheet.createRow(rowIndex[0] + startingRow);
-                        row.setHeightInPoints(((float) 4.5 * sheet.getDefaultRowHeightInPoints()));
-                        createCell(row, columnIndex, schedulePayload.getEthosCaseRef(), cellStyle);
-                        columnIndex++;
-                        createCell(row, columnIndex, getClaimantAddress(schedulePayload), cellStyle);
-                        columnIndex++;
-                        createCell(row, columnIndex, getRespondentAddress(schedulePayload), cellStyle);
-                        rowIndex[0]++;
-                    })
-            );
-        }
-    }
-
     private String getClaimantAddress(SchedulePayload schedulePayload) {
         var sb = new StringBuilder();
         sb.append(schedulePayload.getClaimantName());
@@ -211,61 +183,73 @@ public class ScheduleCreationService {
         }
     }
 
-    private void initializeSubMultipleData(XSSFWorkbook workbook, XSSFSheet sheet, MultipleData multipleData,
-                                           SortedMap<String, SortedMap<String, SortedMap<String,
-                                           Object>>> schedulePayloadTreeMap) {
-
-        var cellStyle = MultiplesSchedulePrinter.getRowCellStyle(workbook);
-        var startingRow = 2;
-
-        if (!schedulePayloadTreeMap.isEmpty()) {
-            log.info("Sub Multiple schedule");
-
-            for (Map.Entry<String, SortedMap<String, SortedMap<String, Object>>> entry :
-                    schedulePayloadTreeMap.entrySet()) {
-                SortedMap<String, SortedMap<String, Object>> schedulePayloads = entry.getValue();
-                //TITLE ROW
-                XSSFRow subMultipleRow = sheet.createRow(startingRow);
-                createCell(subMultipleRow, 0, getSubMultipleTitle(multipleData, entry.getKey()),
-                        MultiplesSchedulePrinter.getHeader3CellStyle(workbook));
-                //SUBTITLE ROW
-                XSSFRow tableTitleRow = sheet.createRow(startingRow + 1);
-                for (var j = 0; j < subMultipleHeaders.size(); j++) {
-                    createCell(tableTitleRow, j, subMultipleHeaders.get(j),
-                            MultiplesSchedulePrinter.getHeader3CellStyle(workbook));
+    /**
+     * Writes each row below the previous one, adding the table headers of the schedule template as it goes.
+     */
+    private final class SheetRowWriter implements ScheduleRowWriter {
+
+        private final CellStyleRegistry styles;
+        private final SXSSFSheet sheet;
+        private final MultipleData multipleData;
+        private final String scheduleTemplate;
+        private final CellStyle cellStyle;
+        private int rowIndex;
+
+        private SheetRowWriter(CellStyleRegistry styles, SXSSFSheet sheet, MultipleData multipleData) {
+            this.styles = styles;
+            this.sheet = sheet;
+            this.multipleData = multipleData;
+            this.scheduleTemplate = multipleData.getScheduleDocName();
+            this.cellStyle = styles.get(Style.ROW);
+            this.rowIndex = isMultipleSchedule() ? TABLE_TITLE_ROW : SUB_MULTIPLE_STARTING_ROW;
+        }
+
+        @Override
+        public void startSubMultiple(String subMultipleName) {
+            //TITLE ROW
+            SXSSFRow subMultipleRow = sheet.createRow(rowIndex++);
+            createCell(subMultipleRow, 0, getSubMultipleTitle(multipleData, subMultipleName),
+                    styles.get(Style.HEADER_3));
+            //SUBTITLE ROW
+            createTableTitleRow(subMultipleHeaders);
+        }
+
+        @Override
+        public void addRow(SchedulePayload schedulePayload) {
+            if (scheduleTemplate.equals(MULTIPLE_SCHEDULE_CONFIG)) {
+                if (rowIndex == TABLE_TITLE_ROW) {
+                    createTableTitleRow(multipleHeaders);
                 }
-                //DATA ROWS
-                final int[] rowIndex = {0};
-                int entryStartingRow = startingRow;
-                schedulePayloads.forEach((String caseYear, Map<String, Object> scheduleYearList) ->
-                        scheduleYearList.forEach((String caseNum, Object caseItem) -> {
-                            var columnIndex = 0;
-                            var schedulePayload = (SchedulePayload) caseItem;
-                            XSSFRow row = sheet.createRow(entryStartingRow + 2 + rowIndex[0]);
-                            createCell(row, columnIndex, schedulePayload.getEthosCaseRef(), cellStyle);
-                            columnIndex++;
-                            createCell(row, columnIndex, schedulePayload.getClaimantName(), cellStyle);
-                            columnIndex++;
-                            createCell(row, columnIndex, schedulePayload.getPositionType(), cellStyle);
-                            rowIndex[0]++;
-                        })
-                );
-
-                startingRow += 2 + rowIndex[0];
+                SXSSFRow row = sheet.createRow(rowIndex++);
+                createCell(row, 0, schedulePayload.getEthosCaseRef(), cellStyle);
+                createCell(row, 1, getClaimantVsRespondent(schedulePayload), cellStyle);
+            } else if (scheduleTemplate.equals(MULTIPLE_SCHEDULE_DETAILED_CONFIG)) {
+                if (rowIndex == TABLE_TITLE_ROW) {
+                    createTableTitleRow(multipleDetailedHeaders);
+                }
+                SXSSFRow row = sheet.createRow(rowIndex++);
+                row.setHeightInPoints(((float) 4.5 * sheet.getDefaultRowHeightInPoints()));
+                createCell(row, 0, schedulePayload.getEthosCaseRef(), cellStyle);
+                createCell(row, 1, getClaimantAddress(schedulePayload), cellStyle);
+                createCell(row, 2, getRespondentAddress(schedulePayload), cellStyle);
+            } else {
+                SXSSFRow row = sheet.createRow(rowIndex++);
+                createCell(row, 0, schedulePayload.getEthosCaseRef(), cellStyle);
+                createCell(row, 1, schedulePayload.getClaimantName(), cellStyle);
+                createCell(row, 2, schedulePayload.getPositionType(), cellStyle);
             }
         }
-    }
-
-    private void initializeSubMultipleDataLogic(XSSFWorkbook workbook, XSSFSheet sheet,
-                                                MultipleData multipleData, List<SchedulePayload> schedulePayloads,
-                                                SortedMap<String, Object> multipleObjectsFiltered) {
-
-        Map<String, SchedulePayload> scheduleEventMap = schedulePayloads.stream()
-                .collect(Collectors.toMap(SchedulePayload::getEthosCaseRef, schedulePayload -> schedulePayload));
 
-        SortedMap<String, SortedMap<String, SortedMap<String, Object>>> schedulePayloadTreeMap =
-                MultiplesScheduleHelper.getMultipleTreeMap(multipleObjectsFiltered, scheduleEventMap);
+        private boolean isMultipleSchedule() {
+            return Arrays.asList(MULTIPLE_SCHEDULE_CONFIG, MULTIPLE_SCHEDULE_DETAILED_CONFIG)
+                    .contains(scheduleTemplate);
+        }
 
-        initializeSubMultipleData(workbook, sheet, multipleData, schedulePayloadTreeMap);
+        private void createTableTitleRow(List<String> headers) {
+            SXSSFRow tableTitleRow = sheet.createRow(rowIndex++);
+            for (var j = 0; j < headers.size(); j++) {
+                createCell(tableTitleRow, j, headers.get(j), styles.get(Style.HEADER_3));
+            }
+        }
     }
 }
@@ -0,0 +1,16 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uk.gov.hmcts.ecm.common.model.schedule.SchedulePayloadEvent;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSearchResult {
+    private Long total;
+    private List<SchedulePayloadEvent> cases;
+}
@@ -8,12 +8,16 @@ import uk.gov.hmcts.ecm.common.helpers.UtilHelper;
 import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 import uk.gov.hmcts.ecm.common.model.labels.LabelPayloadEvent;
 import uk.gov.hmcts.ecm.common.model.schedule.SchedulePayloadEvent;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CaseReferencesElasticSearchQuery;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
+import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.LabelsHelper.LABEL_SOURCE_FIELDS;
+import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper.SCHEDULE_SOURCE_FIELDS;
+
 @Slf4j
 @Service("singleCasesReadingService")
 public class SingleCasesReadingService {
@@ -65,9 +69,14 @@ public class SingleCasesReadingService {
         List<LabelPayloadEvent> labelEvents = new ArrayList<>();
 
         try {
-            labelEvents = ccdClient.retrieveCasesElasticSearchLabels(userToken,
+            var searchResult = ccdClient.runElasticSearch(userToken,
                     UtilHelper.getCaseTypeId(multipleCaseTypeId),
-                    caseIds);
+                    CaseReferencesElasticSearchQuery.create(caseIds, LABEL_SOURCE_FIELDS),
+                    LabelSearchResult.class);
+
+            if (searchResult != null && searchResult.getCases() != null) {
+                labelEvents = searchResult.getCases();
+            }
 
         } catch (Exception ex) {
 
@@ -87,9 +96,14 @@ public class SingleCasesReadingService {
         HashSet<SchedulePayloadEvent> schedulePayloadEvents = new HashSet<>();
 
         try {
-            schedulePayloadEvents = new HashSet<>(ccdClient.retrieveCasesElasticSearchSchedule(userToken,
+            var searchResult = ccdClient.runElasticSearch(userToken,
                     UtilHelper.getCaseTypeId(multipleCaseTypeId),
-                    caseIds));
+                    CaseReferencesElasticSearchQuery.create(caseIds, SCHEDULE_SOURCE_FIELDS),
+                    ScheduleSearchResult.class);
+
+            if (searchResult != null && searchResult.getCases() != null) {
+                schedulePayloadEvents = new HashSet<>(searchResult.getCases());
+            }
 
         } catch (Exception ex) {
 
@@ -0,0 +1,221 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.crypt.CryptoFunctions;
+import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Reads the first columns of a worksheet with a SAX parser, passing each row on as soon as it has been read so
+ * that the sheet is never held in memory. Cells are read the way {@link ExcelReadingService} reads them: strings
+ * as they are, numbers as text and anything else, including formulas, as an empty string.
+ */
+final class StreamingSheetReader extends DefaultHandler {
+
+    /**
+     * Receives the cell values of each row read, indexed by column.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void handle(int rowNum, String[] cells);
+    }
+
+    private static final String ROW = "row";
+    private static final String CELL = "c";
+    private static final String VALUE = "v";
+    private static final String FORMULA = "f";
+    private static final String INLINE_STRING = "is";
+    private static final String TEXT = "t";
+    private static final String PHONETIC_RUN = "rPh";
+    private static final String SHEET_PROTECTION = "sheetProtection";
+
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final int columns;
+    private final RowHandler rowHandler;
+    private final StringBuilder value = new StringBuilder();
+
+    private String[] cells;
+    private int rowNum = -1;
+    private int column;
+    private String cellType;
+    private boolean formula;
+    private boolean inValue;
+    private boolean inInlineString;
+    private boolean inPhoneticRun;
+    private boolean inText;
+
+    private boolean sheetLocked;
+    private String legacyPasswordHash;
+    private String algorithmName;
+    private String hashValue;
+    private String saltValue;
+    private String spinCount;
+
+    private StreamingSheetReader(ReadOnlySharedStringsTable sharedStrings, int columns, RowHandler rowHandler) {
+        this.sharedStrings = sharedStrings;
+        this.columns = columns;
+        this.rowHandler = rowHandler;
+    }
+
+    /**
+     * Reads the worksheet with the given name, or returns an empty optional when the workbook has no such sheet.
+     */
+    static Optional<StreamingSheetReader> read(OPCPackage opcPackage, String sheetName, int columns,
+                                               RowHandler rowHandler) throws IOException {
+        try {
+            var xssfReader = new XSSFReader(opcPackage);
+            var sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (var sheet = sheets.next()) {
+                    if (sheetName.equals(sheets.getSheetName())) {
+                        var reader = new StreamingSheetReader(new ReadOnlySharedStringsTable(opcPackage), columns,
+                                rowHandler);
+                        var xmlReader = XMLHelper.newXMLReader();
+                        xmlReader.setContentHandler(reader);
+                        xmlReader.parse(new InputSource(sheet));
+                        return Optional.of(reader);
+                    }
+                }
+            }
+            return Optional.empty();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read worksheet " + sheetName, e);
+        }
+    }
+
+    /**
+     * Checks the password the sheet was protected with, the same way an XSSFSheet validates its password.
+     */
+    boolean validateSheetPassword(String password) {
+        if (!sheetLocked) {
+            return password == null;
+        }
+        if (password == null) {
+            return false;
+        }
+        if (legacyPasswordHash != null) {
+            return Integer.parseInt(legacyPasswordHash, 16) == CryptoFunctions.createXorVerifier1(password);
+        }
+        if (algorithmName == null || hashValue == null || saltValue == null || spinCount == null) {
+            return false;
+        }
+        var hash = CryptoFunctions.hashPassword(password, HashAlgorithm.fromString(algorithmName),
+                Base64.getDecoder().decode(saltValue), Integer.parseInt(spinCount), false);
+        return Arrays.equals(Base64.getDecoder().decode(hashValue), hash);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case ROW:
+                var rowReference = attributes.getValue("r");
+                rowNum = rowReference == null ? rowNum + 1 : Integer.parseInt(rowReference) - 1;
+                cells = new String[columns];
+                Arrays.fill(cells, "");
+                column = -1;
+                break;
+            case CELL:
+                var cellReference = attributes.getValue("r");
+                column = cellReference == null ? column + 1 : new CellReference(cellReference).getCol();
+                cellType = attributes.getValue("t");
+                formula = false;
+                value.setLength(0);
+                break;
+            case VALUE:
+                inValue = true;
+                break;
+            case FORMULA:
+                formula = true;
+                break;
+            case INLINE_STRING:
+                inInlineString = true;
+                break;
+            case PHONETIC_RUN:
+                inPhoneticRun = true;
+                break;
+            case TEXT:
+                inText = inInlineString && !inPhoneticRun;
+                break;
+            case SHEET_PROTECTION:
+                var sheet = attributes.getValue("sheet");
+                sheetLocked = "1".equals(sheet) || "true".equals(sheet);
+                legacyPasswordHash = attributes.getValue("password");
+                algorithmName = attributes.getValue("algorithmName");
+                hashValue = attributes.getValue("hashValue");
+                saltValue = attributes.getValue("saltValue");
+                spinCount = attributes.getValue("spinCount");
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        switch (localName) {
+            case ROW:
+                rowHandler.handle(rowNum, cells);
+                break;
+            case CELL:
+                if (column >= 0 && column < columns) {
+                    cells[column] = getCellValue();
+                }
+                break;
+            case VALUE:
+                inValue = false;
+                break;
+            case INLINE_STRING:
+                inInlineString = false;
+                break;
+            case PHONETIC_RUN:
+                inPhoneticRun = false;
+                break;
+            case TEXT:
+                inText = false;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inValue || inText) {
+            value.append(ch, start, length);
+        }
+    }
+
+    private String getCellValue() {
+        if (formula) {
+            return "";
+        }
+        if (cellType == null || "n".equals(cellType)) {
+            return value.length() == 0 ? "" : NumberToTextConverter.toText(Double.parseDouble(value.toString()));
+        }
+        switch (cellType) {
+            case "s":
+                return value.length() == 0 ? "" : sharedStrings.getItemAt(Integer.parseInt(value.toString()))
+                        .getString();
+            case "inlineStr":
+            case "str":
+                return value.toString();
+            default:
+                return "";
+        }
+    }
+}
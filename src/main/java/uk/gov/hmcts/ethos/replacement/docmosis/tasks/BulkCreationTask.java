@@ -8,6 +8,7 @@ import uk.gov.hmcts.ecm.common.model.ccd.CCDRequest;
 import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.PENDING_STATE;
 
@@ -58,7 +59,7 @@ public class BulkCreationTask implements Runnable {
                     UtilHelper.getCaseTypeId(
                             bulkDetails.getCaseTypeId()), bulkDetails.getJurisdiction(), returnedRequest, caseId);
         } catch (IOException e) {
-            log.error("Error processing bulk update threads:" + e.getMessage(), e);
+            throw new UncheckedIOException("Error processing bulk creation of case " + caseId, e);
         }
     }
 }
@@ -9,6 +9,7 @@ import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 import uk.gov.hmcts.ecm.common.model.ccd.types.CasePreAcceptType;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.YES;
@@ -47,7 +48,7 @@ public class BulkPreAcceptTask implements Runnable {
                     UtilHelper.getCaseTypeId(bulkDetails.getCaseTypeId()),
                     bulkDetails.getJurisdiction(), returnedRequest, caseId);
         } catch (IOException e) {
-            log.error("Error processing bulk pre accept threads:", e);
+            throw new UncheckedIOException("Error processing bulk pre accept of case " + caseId, e);
         }
     }
 }
@@ -9,6 +9,7 @@ import uk.gov.hmcts.ecm.common.model.ccd.CCDRequest;
 import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Slf4j
 public class BulkUpdateBulkTask implements Runnable {
@@ -57,7 +58,7 @@ public class BulkUpdateBulkTask implements Runnable {
                 }
             }
         } catch (IOException e) {
-            log.error("Error processing bulk update task threads" + e.getMessage(), e);
+            throw new UncheckedIOException("Error processing bulk update task of " + bulkDetails.getCaseId(), e);
         }
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import uk.gov.hmcts.ecm.common.model.ccd.CCDRequest;
 import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Slf4j
 public class BulkUpdateTask implements Runnable {
@@ -37,7 +38,7 @@ public class BulkUpdateTask implements Runnable {
                     UtilHelper.getCaseTypeId(bulkDetails.getCaseTypeId()),
                     bulkDetails.getJurisdiction(), returnedRequest, caseId);
         } catch (IOException e) {
-            log.error("Error processing bulk update threads:" + e.getMessage(), e);
+            throw new UncheckedIOException("Error processing bulk update of case " + caseId, e);
         }
     }
 }
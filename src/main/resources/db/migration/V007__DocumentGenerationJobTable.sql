@@ -0,0 +1,14 @@
+CREATE TABLE document_generation_job (
+    id VARCHAR(36) PRIMARY KEY,
+    case_id VARCHAR(100),
+    case_type_id VARCHAR(100),
+    status VARCHAR(20) NOT NULL,
+    document_name VARCHAR(255),
+    document_url VARCHAR(1000),
+    mark_up VARCHAR(2000),
+    error_message VARCHAR(2000),
+    created_date TIMESTAMP NOT NULL,
+    completed_date TIMESTAMP
+);
+
+CREATE INDEX idx_document_generation_job_case_id ON document_generation_job (case_id);
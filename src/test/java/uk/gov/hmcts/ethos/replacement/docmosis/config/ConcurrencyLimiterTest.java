@@ -0,0 +1,132 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void shouldBoundTasksRunningAtOnce() throws InterruptedException {
+        var limiter = new ConcurrencyLimiter("ccd", 2, 10_000);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(6);
+        try {
+            for (var i = 0; i < 12; i++) {
+                executor.execute(limiter.decorate(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(20);
+                    running.decrementAndGet();
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shouldCountCallsInFlight() {
+        var limiter = new ConcurrencyLimiter("ccd", 2, 1000);
+
+        limiter.decorate(() -> assertEquals(1, limiter.getInFlight())).run();
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shouldSkipCancelledFutureWithoutWaitingForPermit() {
+        var limiter = new ConcurrencyLimiter("ccd", 0, 10_000);
+        var ran = new AtomicBoolean();
+        var future = new FutureTask<Void>(() -> ran.set(true), null);
+        future.cancel(true);
+        var start = System.nanoTime();
+
+        limiter.decorate(future).run();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void shouldCancelFutureWhenNoPermitInTime() throws InterruptedException {
+        var limiter = new ConcurrencyLimiter("ccd", 1, 50);
+        var future = new FutureTask<Void>(() -> { }, null);
+
+        holdPermit(limiter, () -> limiter.decorate(future).run());
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void shouldWaitForPermitWhenTaskHasNoFuture() throws InterruptedException {
+        var limiter = new ConcurrencyLimiter("ccd", 1, 50);
+        var ran = new AtomicBoolean();
+        var waiter = new Thread(limiter.decorate(() -> ran.set(true)));
+
+        holdPermit(limiter, () -> {
+            waiter.start();
+            sleep(200);
+            assertFalse(ran.get());
+        });
+        waiter.join(10_000);
+
+        assertTrue(ran.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shouldRejectTaskWhenInterruptedWaitingForPermit() throws InterruptedException {
+        var limiter = new ConcurrencyLimiter("ccd", 1, 50);
+
+        holdPermit(limiter, () -> {
+            Thread.currentThread().interrupt();
+            assertThrows(RejectedExecutionException.class, () -> limiter.decorate(() -> { }).run());
+            assertTrue(Thread.interrupted());
+        });
+    }
+
+    private static void holdPermit(ConcurrencyLimiter limiter, Runnable whileHeld) throws InterruptedException {
+        var acquired = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var holder = new Thread(limiter.decorate(() -> {
+            acquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        try {
+            assertTrue(acquired.await(10, TimeUnit.SECONDS));
+            whileHeld.run();
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
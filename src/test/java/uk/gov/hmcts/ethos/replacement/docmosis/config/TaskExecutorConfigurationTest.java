@@ -0,0 +1,120 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.ethos.replacement.docmosis.config.TaskExecutorMetrics.TASK_TIMER;
+
+public class TaskExecutorConfigurationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskExecutorConfiguration taskExecutorConfiguration;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskExecutorConfiguration = new TaskExecutorConfiguration(new TaskExecutorMetrics(meterRegistry));
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "poolSize", 1);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "queueCapacity", 1);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "scheduleFetchConcurrency", 2);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "scheduleFetchQueueCapacity", 10);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "bulkUpdateConcurrency", 2);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "bulkUpdateQueueCapacity", 10);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "ccdMaxConcurrentCalls", 2);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "ccdAcquireTimeout", 10_000L);
+    }
+
+    @Test
+    public void shouldCountFailedBulkUpdateWithoutRethrowing() {
+        var executor = (ThreadPoolTaskExecutor) taskExecutorConfiguration.bulkUpdateExecutor();
+        executor.initialize();
+
+        executor.execute(() -> {
+            throw new UncheckedIOException("Error processing bulk update of case 1", new IOException());
+        });
+        executor.execute(() -> { });
+        executor.shutdown();
+
+        assertEquals(1, taskCount("bulk-update", "failure"));
+        assertEquals(1, taskCount("bulk-update", "success"));
+    }
+
+    @Test
+    public void shouldRunEveryBulkUpdateWhenPermitsAreHeldLongerThanTimeout() throws InterruptedException {
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "bulkUpdateConcurrency", 6);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "ccdMaxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "ccdAcquireTimeout", 10L);
+        var executor = (ThreadPoolTaskExecutor) taskExecutorConfiguration.bulkUpdateExecutor();
+        executor.initialize();
+        var tasks = 12;
+        var ran = new CountDownLatch(tasks);
+        try {
+            for (var i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    sleep(30);
+                    ran.countDown();
+                });
+            }
+
+            assertTrue(ran.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(tasks, taskCount("bulk-update", "success"));
+    }
+
+    @Test
+    public void shouldRunBulkUpdateOnCallerWhenSaturated() {
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "bulkUpdateConcurrency", 1);
+        ReflectionTestUtils.setField(taskExecutorConfiguration, "bulkUpdateQueueCapacity", 0);
+        var executor = (ThreadPoolTaskExecutor) taskExecutorConfiguration.bulkUpdateExecutor();
+        executor.initialize();
+        var caller = Thread.currentThread();
+        var ranOnCaller = new boolean[1];
+        try {
+            executor.execute(() -> sleep(500));
+            executor.execute(() -> ranOnCaller[0] = Thread.currentThread() == caller);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(ranOnCaller[0]);
+    }
+
+    @Test
+    public void shouldRejectDocumentGenerationWhenSaturated() {
+        var executor = taskExecutorConfiguration.documentGenerationExecutor();
+        executor.initialize();
+        try {
+            executor.execute(() -> sleep(500));
+            executor.execute(() -> sleep(500));
+
+            assertThrows(RuntimeException.class, () -> executor.execute(() -> { }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long taskCount(String executorName, String outcome) {
+        return meterRegistry.get(TASK_TIMER).tag("name", executorName).tag("outcome", outcome).timer().count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
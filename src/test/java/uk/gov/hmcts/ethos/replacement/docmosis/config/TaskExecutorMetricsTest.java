@@ -0,0 +1,73 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.ethos.replacement.docmosis.config.TaskExecutorMetrics.IN_FLIGHT_GAUGE;
+import static uk.gov.hmcts.ethos.replacement.docmosis.config.TaskExecutorMetrics.REJECTED_COUNTER;
+import static uk.gov.hmcts.ethos.replacement.docmosis.config.TaskExecutorMetrics.TASK_TIMER;
+
+public class TaskExecutorMetricsTest {
+
+    private static final String EXECUTOR_NAME = "bulk-update";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskExecutorMetrics taskExecutorMetrics;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskExecutorMetrics = new TaskExecutorMetrics(meterRegistry);
+    }
+
+    @Test
+    public void shouldRecordSuccessfulTask() {
+        taskExecutorMetrics.taskDecorator(EXECUTOR_NAME).decorate(() -> { }).run();
+
+        assertEquals(1, taskCount("success"));
+    }
+
+    @Test
+    public void shouldRecordAndRethrowFailedTask() {
+        var task = taskExecutorMetrics.taskDecorator(EXECUTOR_NAME).decorate(() -> {
+            throw new IllegalStateException("CCD unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, task::run);
+        assertEquals(1, taskCount("failure"));
+    }
+
+    @Test
+    public void shouldCountRejectedTaskAndApplyPolicy() {
+        var policy = mock(RejectedExecutionHandler.class);
+        var executor = mock(ThreadPoolExecutor.class);
+        Runnable task = () -> { };
+
+        taskExecutorMetrics.rejectedExecutionHandler(EXECUTOR_NAME, policy).rejectedExecution(task, executor);
+
+        assertEquals(1, meterRegistry.get(REJECTED_COUNTER).tag("name", EXECUTOR_NAME).counter().count(), 0);
+        verify(policy).rejectedExecution(task, executor);
+    }
+
+    @Test
+    public void shouldPublishCallsInFlight() {
+        var limiter = taskExecutorMetrics.register(new ConcurrencyLimiter("ccd", 2, 1000));
+        var gauge = meterRegistry.get(IN_FLIGHT_GAUGE).tag("downstream", "ccd").gauge();
+
+        limiter.decorate(() -> assertEquals(1, gauge.value(), 0)).run();
+
+        assertEquals(0, gauge.value(), 0);
+    }
+
+    private long taskCount(String outcome) {
+        return meterRegistry.get(TASK_TIMER).tag("name", EXECUTOR_NAME).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,34 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.config;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadTaskExecutorTest {
+
+    private static final int VIRTUAL_THREADS_VERSION = 21;
+
+    @Test
+    public void shouldFallBackBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_VERSION);
+
+        assertFalse(VirtualThreadTaskExecutor.create(task -> task, 1).isPresent());
+    }
+
+    @Test
+    public void shouldRunDecoratedTasksOnJava21() throws InterruptedException {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_VERSION);
+        var ran = new boolean[1];
+        var executor = VirtualThreadTaskExecutor.create(task -> () -> {
+            ran[0] = true;
+            task.run();
+        }, 1).orElseThrow();
+
+        executor.execute(() -> { });
+        executor.destroy();
+
+        assertTrue(ran[0]);
+    }
+}
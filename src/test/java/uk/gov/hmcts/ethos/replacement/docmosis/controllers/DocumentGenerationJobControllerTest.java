@@ -0,0 +1,88 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import uk.gov.hmcts.ethos.replacement.docmosis.DocmosisApplication;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJob;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJobStatus;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.VerifyTokenService;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(DocumentGenerationJobController.class)
+@ContextConfiguration(classes = DocmosisApplication.class)
+public class DocumentGenerationJobControllerTest {
+
+    private static final String AUTH_TOKEN = "Bearer eyJhbGJbpjciOiJIUzI1NiJ9";
+    private static final String JOB_URL = "/documentGenerationJob/{jobId}";
+    private static final String JOB_ID = "1234";
+
+    @Autowired
+    private WebApplicationContext applicationContext;
+
+    @MockBean
+    private DocumentGenerationJobService documentGenerationJobService;
+
+    @MockBean
+    private VerifyTokenService verifyTokenService;
+
+    private MockMvc mvc;
+
+    @Before
+    public void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(applicationContext).build();
+    }
+
+    @Test
+    public void getDocumentGenerationJob() throws Exception {
+        var job = new DocumentGenerationJob();
+        job.setId(JOB_ID);
+        job.setStatus(DocumentGenerationJobStatus.COMPLETED);
+        job.setMarkUp("<a>Document</a>");
+        when(documentGenerationJobService.getJob(JOB_ID)).thenReturn(Optional.of(job));
+        when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
+
+        mvc.perform(get(JOB_URL, JOB_ID)
+                .header("Authorization", AUTH_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(JOB_ID)))
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.markUp", is("<a>Document</a>")));
+    }
+
+    @Test
+    public void getDocumentGenerationJobNotFound() throws Exception {
+        when(documentGenerationJobService.getJob(JOB_ID)).thenReturn(Optional.empty());
+        when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
+
+        mvc.perform(get(JOB_URL, JOB_ID)
+                .header("Authorization", AUTH_TOKEN))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getDocumentGenerationJobForbidden() throws Exception {
+        when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(false);
+
+        mvc.perform(get(JOB_URL, JOB_ID)
+                .header("Authorization", AUTH_TOKEN))
+                .andExpect(status().isForbidden());
+    }
+}
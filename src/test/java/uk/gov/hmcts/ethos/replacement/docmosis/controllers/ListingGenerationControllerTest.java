@@ -34,6 +34,7 @@ import uk.gov.hmcts.ethos.replacement.docmosis.reports.hearingstojudgments.Heari
 import uk.gov.hmcts.ethos.replacement.docmosis.reports.memberdays.MemberDaysReportData;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.ReportDataService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.DefaultValuesReaderService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.GenerateReportService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.ListingService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.PrintHearingListService;
@@ -107,6 +108,9 @@ public class ListingGenerationControllerTest {
     @MockBean
     private GenerateReportService generateReportService;
 
+    @MockBean
+    private DocumentGenerationJobService documentGenerationJobService;
+
     private MockMvc mvc;
     private JsonNode requestContent;
     private JsonNode requestContent1;
@@ -278,7 +282,7 @@ public class ListingGenerationControllerTest {
 
     @Test
     public void generateHearingDocument() throws Exception {
-        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), eq(AUTH_TOKEN)))
+        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
         mvc.perform(post(GENERATE_HEARING_DOCUMENT_URL)
@@ -306,7 +310,7 @@ public class ListingGenerationControllerTest {
 
     @Test
     public void generateHearingDocumentWithErrors() throws Exception {
-        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), eq(AUTH_TOKEN)))
+        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
         mvc.perform(post(GENERATE_HEARING_DOCUMENT_URL)
@@ -337,7 +341,7 @@ public class ListingGenerationControllerTest {
     public void generateListingsDocSingleCases() throws Exception {
         when(listingService.setCourtAddressFromCaseData(isA(CaseData.class)))
                 .thenReturn(singleListingRequest.getCaseDetails().getCaseData());
-        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), eq(AUTH_TOKEN)))
+        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
         mvc.perform(post(GENERATE_LISTINGS_DOC_SINGLE_CASES_URL)
@@ -365,7 +369,7 @@ public class ListingGenerationControllerTest {
 
     @Test
     public void generateListingsDocSingleCasesWithErrors() throws Exception {
-        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), eq(AUTH_TOKEN)))
+        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
         mvc.perform(post(GENERATE_LISTINGS_DOC_SINGLE_CASES_URL)
@@ -384,7 +388,7 @@ public class ListingGenerationControllerTest {
         when(reportDataService.generateReportData(isA(ListingDetails.class), eq(AUTH_TOKEN)))
                 .thenReturn(listingRequest.getCaseDetails().getCaseData());
         when(listingService.processHearingDocument(isA(ListingData.class),
-                isA(String.class), eq(AUTH_TOKEN)))
+                isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         mvc.perform(post(GENERATE_REPORT_URL)
                 .content(requestContent.toString())
@@ -406,7 +410,7 @@ public class ListingGenerationControllerTest {
         when(reportDataService.generateReportData(isA(ListingDetails.class), eq(AUTH_TOKEN)))
                 .thenReturn(reportData);
         when(listingService.processHearingDocument(isA(ListingData.class),
-                isA(String.class), eq(AUTH_TOKEN)))
+                isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         mvc.perform(post(GENERATE_REPORT_URL)
                         .content(requestContent.toString())
@@ -428,7 +432,7 @@ public class ListingGenerationControllerTest {
         when(reportDataService.generateReportData(isA(ListingDetails.class), eq(AUTH_TOKEN)))
                 .thenReturn(reportData);
         when(listingService.processHearingDocument(isA(ListingData.class),
-                isA(String.class), eq(AUTH_TOKEN)))
+                isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenReturn(documentInfo);
         mvc.perform(post(GENERATE_REPORT_URL)
                         .content(requestContent.toString())
@@ -450,7 +454,7 @@ public class ListingGenerationControllerTest {
         when(reportDataService.generateReportData(isA(ListingDetails.class), eq(AUTH_TOKEN)))
             .thenReturn(reportData);
         when(listingService.processHearingDocument(isA(ListingData.class),
-            isA(String.class), eq(AUTH_TOKEN)))
+            isA(String.class), any(), eq(AUTH_TOKEN)))
             .thenReturn(documentInfo);
 
         mvc.perform(post(GENERATE_REPORT_URL)
@@ -591,7 +595,7 @@ public class ListingGenerationControllerTest {
 
     @Test
     public void generateListingsDocSingleCasesError500() throws Exception {
-        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), eq(AUTH_TOKEN)))
+        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenThrow(new InternalException(ERROR_MESSAGE));
 
         when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
@@ -607,7 +611,7 @@ public class ListingGenerationControllerTest {
 
     @Test
     public void generateHearingDocumentError500() throws Exception {
-        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), eq(AUTH_TOKEN)))
+        when(listingService.processHearingDocument(isA(ListingData.class), isA(String.class), any(), eq(AUTH_TOKEN)))
                 .thenThrow(new InternalException(ERROR_MESSAGE));
         when(verifyTokenService.verifyTokenSignature(AUTH_TOKEN)).thenReturn(true);
         mvc.perform(post(GENERATE_HEARING_DOCUMENT_URL)
@@ -0,0 +1,52 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CellStyleRegistry.Style;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CellStyleRegistryTest {
+
+    @Test
+    public void shouldCreateEachStyleOnce() throws IOException {
+        try (var workbook = new XSSFWorkbook()) {
+            var styles = new CellStyleRegistry(workbook);
+            var initialStyles = workbook.getNumCellStyles();
+
+            for (var i = 0; i < 100; i++) {
+                for (Style style : Style.values()) {
+                    styles.get(style);
+                }
+            }
+
+            assertEquals(initialStyles + Style.values().length, workbook.getNumCellStyles());
+            assertSame(styles.get(Style.LOCKED), styles.get(Style.LOCKED));
+        }
+    }
+
+    @Test
+    public void shouldCreateStylesPerWorkbook() throws IOException {
+        try (var workbook1 = new XSSFWorkbook(); var workbook2 = new XSSFWorkbook()) {
+            assertNotSame(new CellStyleRegistry(workbook1).get(Style.ROW),
+                    new CellStyleRegistry(workbook2).get(Style.ROW));
+        }
+    }
+
+    @Test
+    public void shouldOnlyUnlockUnlockedStyle() throws IOException {
+        try (var workbook = new XSSFWorkbook()) {
+            var styles = new CellStyleRegistry(workbook);
+
+            assertTrue(styles.get(Style.LOCKED).getLocked());
+            assertTrue(styles.get(Style.LEAD).getLocked());
+            assertFalse(styles.get(Style.UNLOCKED).getLocked());
+        }
+    }
+}
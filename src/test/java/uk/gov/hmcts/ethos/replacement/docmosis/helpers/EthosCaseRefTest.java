@@ -0,0 +1,56 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EthosCaseRefTest {
+
+    @Test
+    public void parse() {
+        var ethosCaseRef = EthosCaseRef.parse("1800074/2020");
+
+        assertTrue(ethosCaseRef.isParsed());
+        assertEquals(18, ethosCaseRef.getOfficePrefix());
+        assertEquals(74, ethosCaseRef.getNumber());
+        assertEquals(2020, ethosCaseRef.getYear());
+        assertEquals("1800074/2020", ethosCaseRef.toString());
+    }
+
+    @Test
+    public void parseMalformed() {
+        for (String value : Arrays.asList("", "1800074", "18/2020", "1800074/", "18A0074/2020", "1800074/20201")) {
+            var ethosCaseRef = EthosCaseRef.parse(value);
+
+            assertFalse(value, ethosCaseRef.isParsed());
+            assertEquals(-1, ethosCaseRef.getYear());
+            assertEquals(value, ethosCaseRef.toString());
+        }
+    }
+
+    @Test
+    public void orderByYearOfficeAndNumber() {
+        List<String> refs = Arrays.asList("invalid", "2500001/2020", "1800075/2021", "180074/2020", "1800075/2020",
+                "1800074/2021");
+
+        var sorted = refs.stream().map(EthosCaseRef::parse).sorted().map(EthosCaseRef::toString).collect(toList());
+
+        assertEquals(Arrays.asList("180074/2020", "1800075/2020", "2500001/2020", "1800074/2021", "1800075/2021",
+                "invalid"), sorted);
+    }
+
+    @Test
+    public void equalityFollowsText() {
+        assertEquals(EthosCaseRef.parse("1800074/2020"), EthosCaseRef.parse("1800074/2020"));
+        assertEquals(EthosCaseRef.parse("1800074/2020").getKey(), EthosCaseRef.parse("18000074/2020").getKey());
+        assertNotEquals(EthosCaseRef.parse("1800074/2020"), EthosCaseRef.parse("18000074/2020"));
+        assertNotEquals(0, EthosCaseRef.parse("1800074/2020").compareTo(EthosCaseRef.parse("18000074/2020")));
+    }
+}
@@ -60,6 +60,7 @@ public class HelperTest {
         assertEquals("", Helper.nullCheck(null));
         assertEquals("Value example", Helper.nullCheck("Value example"));
         assertEquals("Value ' example '", Helper.nullCheck("Value ' example '"));
+        assertEquals("Line 1\\nLine 2\\\\", Helper.nullCheck("Line 1\nLine 2\\"));
     }
 
     @Test
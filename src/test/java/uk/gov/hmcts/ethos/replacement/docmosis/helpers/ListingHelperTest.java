@@ -7,6 +7,7 @@ import org.junit.Test;
 import uk.gov.hmcts.ecm.common.helpers.UtilHelper;
 import uk.gov.hmcts.ecm.common.idam.models.UserDetails;
 import uk.gov.hmcts.ecm.common.model.bulk.types.DynamicFixedListType;
+import uk.gov.hmcts.ecm.common.model.ccd.Address;
 import uk.gov.hmcts.ecm.common.model.ccd.CaseData;
 import uk.gov.hmcts.ecm.common.model.ccd.items.DateListedTypeItem;
 import uk.gov.hmcts.ecm.common.model.ccd.items.RespondentSumTypeItem;
@@ -567,6 +568,41 @@ public class ListingHelperTest {
                 PUBLIC_CASE_CAUSE_LIST_TEMPLATE, userDetails, ENGLANDWALES_LISTING_CASE_TYPE_ID).toString());
     }
 
+    @Test
+    public void buildCaseCauseListUsesCurrentOfficeDetails() {
+        var listingData = listingDetails.getCaseData();
+        listingData.setTribunalCorrespondenceTelephone("0300 123 1024");
+        ListingHelper.buildListingDocumentContent(listingData, "", PUBLIC_CASE_CAUSE_LIST_TEMPLATE, userDetails,
+                ENGLANDWALES_LISTING_CASE_TYPE_ID);
+
+        listingData.setTribunalCorrespondenceTelephone("0300 999 9999");
+        var content = ListingHelper.buildListingDocumentContent(listingData, "", PUBLIC_CASE_CAUSE_LIST_TEMPLATE,
+                userDetails, ENGLANDWALES_LISTING_CASE_TYPE_ID).toString();
+
+        assertTrue(content.contains("\"Court_telephone\":\"0300 999 9999\""));
+        assertFalse(content.contains("0300 123 1024"));
+    }
+
+    @Test
+    public void buildCaseCauseListUsesCurrentOfficeAddress() {
+        var listingData = listingDetails.getCaseData();
+        listingData.setTribunalCorrespondenceAddress(null);
+        var content = ListingHelper.buildListingDocumentContent(listingData, "", PUBLIC_CASE_CAUSE_LIST_TEMPLATE,
+                userDetails, ENGLANDWALES_LISTING_CASE_TYPE_ID).toString();
+        assertFalse(content.contains("\"Court_addressLine1\""));
+
+        var address = new Address();
+        listingData.setTribunalCorrespondenceAddress(address);
+        content = ListingHelper.buildListingDocumentContent(listingData, "", PUBLIC_CASE_CAUSE_LIST_TEMPLATE,
+                userDetails, ENGLANDWALES_LISTING_CASE_TYPE_ID).toString();
+        assertTrue(content.contains("\"Court_addressLine1\""));
+
+        address.setCountry("Wales");
+        content = ListingHelper.buildListingDocumentContent(listingData, "", PUBLIC_CASE_CAUSE_LIST_TEMPLATE,
+                userDetails, ENGLANDWALES_LISTING_CASE_TYPE_ID).toString();
+        assertTrue(content.contains("Wales"));
+    }
+
     @Ignore("Fix as part of reporting work")
     @Test
     public void buildCaseCauseList2() {
@@ -7,9 +7,9 @@ import uk.gov.hmcts.ecm.common.model.bulk.types.CaseType;
 import uk.gov.hmcts.ecm.common.model.helper.SchedulePayload;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.TreeMap;
 
 import static org.junit.Assert.assertEquals;
@@ -52,12 +52,10 @@ public class MultiplesHelperTest {
     @Test
     public void orderMultiplesStringRef() {
         var refList = Arrays.asList("1800074/2020", "1800074/2021", "1800075/2020", "1800075/2021");
-        var expectedResult = new TreeMap<>(Map.of(
-                "2020", new TreeMap<>(Map.of("1800074", "1800074/2020", "1800075", "1800075/2020")),
-                "2021", new TreeMap<>(Map.of("1800074", "1800074/2021", "1800075", "1800075/2021")))
-        );
+        var orderedCollection = MultiplesHelper.createCollectionOrderedByCaseRef(refList);
 
-        assertEquals(expectedResult, MultiplesHelper.createCollectionOrderedByCaseRef(refList));
+        assertEquals(Arrays.asList("1800074/2020", "1800075/2020", "1800074/2021", "1800075/2021"),
+                new ArrayList<>(orderedCollection.values()));
     }
 
     @Test
@@ -68,20 +66,15 @@ public class MultiplesHelperTest {
                 MultiplesHelper.createMultipleObject("1800075/2020", ""),
                 MultiplesHelper.createMultipleObject("1800075/2021", "")
         );
-        var expectedResult = new TreeMap<>(Map.of(
-                "2020",
-                new TreeMap<>(Map.of(
-                        "1800074", MultiplesHelper.createMultipleObject("1800074/2020", ""),
-                        "1800075", MultiplesHelper.createMultipleObject("1800075/2020", "")
-                )),
-                "2021",
-                new TreeMap<>(Map.of(
-                        "1800074", MultiplesHelper.createMultipleObject("1800074/2021", ""),
-                        "1800075", MultiplesHelper.createMultipleObject("1800075/2021", "")
-                ))
-        ));
-
-        assertEquals(expectedResult, MultiplesHelper.createCollectionOrderedByCaseRef(refList));
+        var expectedResult = Arrays.asList(
+                MultiplesHelper.createMultipleObject("1800074/2020", ""),
+                MultiplesHelper.createMultipleObject("1800075/2020", ""),
+                MultiplesHelper.createMultipleObject("1800074/2021", ""),
+                MultiplesHelper.createMultipleObject("1800075/2021", "")
+        );
+
+        assertEquals(expectedResult,
+                new ArrayList<>(MultiplesHelper.createCollectionOrderedByCaseRef(refList).values()));
     }
 
     @Test
@@ -93,19 +86,15 @@ public class MultiplesHelperTest {
                 SchedulePayload.builder().ethosCaseRef("1800075/2021").build()
         );
 
-        var expectedResult = new TreeMap<>(Map.of(
-                "2020",
-                new TreeMap<>(Map.of(
-                        "1800074", SchedulePayload.builder().ethosCaseRef("1800074/2020").build(),
-                        "1800075", SchedulePayload.builder().ethosCaseRef("1800075/2020").build()
-                )),
-                "2021",
-                new TreeMap<>(Map.of(
-                        "1800074", SchedulePayload.builder().ethosCaseRef("1800074/2021").build(),
-                        "1800075", SchedulePayload.builder().ethosCaseRef("1800075/2021").build()
-                ))));
-
-        assertEquals(expectedResult, MultiplesHelper.createCollectionOrderedByCaseRef(refList));
+        var expectedResult = Arrays.asList(
+                SchedulePayload.builder().ethosCaseRef("1800074/2020").build(),
+                SchedulePayload.builder().ethosCaseRef("1800075/2020").build(),
+                SchedulePayload.builder().ethosCaseRef("1800074/2021").build(),
+                SchedulePayload.builder().ethosCaseRef("1800075/2021").build()
+        );
+
+        assertEquals(expectedResult,
+                new ArrayList<>(MultiplesHelper.createCollectionOrderedByCaseRef(refList).values()));
     }
 
     @Test
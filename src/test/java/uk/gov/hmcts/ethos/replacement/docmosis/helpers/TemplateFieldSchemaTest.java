@@ -0,0 +1,40 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.helpers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TemplateFieldSchemaTest {
+
+    @Test
+    public void englandWalesSchema() {
+        var schema = TemplateFieldSchema.forEnglandWales("1.1");
+
+        assertEquals("\"t1_1\":\"true\",\n", schema.getCorrespondenceField());
+        assertEquals("\"i1_1_enhmcts\":\"[userImage:enhmcts.png]\",\n"
+                + "\"i1_1_enhmcts1\":\"[userImage:enhmcts.png]\",\n"
+                + "\"i1_1_enhmcts2\":\"[userImage:enhmcts.png]\",\n", schema.getImageFields());
+        assertSame(schema, TemplateFieldSchema.forEnglandWales("1.1"));
+    }
+
+    @Test
+    public void scotlandSchema() {
+        var schema = TemplateFieldSchema.forScotland("24");
+
+        assertEquals("\"t_Scot_24\":\"true\",\n", schema.getCorrespondenceField());
+        assertEquals("\"iScot24_schmcts\":\"[userImage:schmcts.png]\",\n"
+                + "\"iScot24_schmcts1\":\"[userImage:schmcts.png]\",\n"
+                + "\"iScot24_schmcts2\":\"[userImage:schmcts.png]\",\n", schema.getImageFields());
+    }
+
+    @Test
+    public void noSectionSelected() {
+        var schema = TemplateFieldSchema.forScotland("");
+
+        assertEquals("", schema.getCorrespondenceField());
+        assertEquals("\"iScot_schmcts\":\"[userImage:schmcts.png]\",\n"
+                + "\"iScot_schmcts1\":\"[userImage:schmcts.png]\",\n"
+                + "\"iScot_schmcts2\":\"[userImage:schmcts.png]\",\n", schema.getImageFields());
+    }
+}
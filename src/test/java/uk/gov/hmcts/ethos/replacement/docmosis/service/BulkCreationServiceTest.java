@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import uk.gov.hmcts.ecm.common.client.CcdClient;
 import uk.gov.hmcts.ecm.common.model.bulk.BulkData;
@@ -35,6 +36,8 @@ import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.*;
 import static uk.gov.hmcts.ethos.replacement.docmosis.service.BulkCreationService.*;
@@ -55,6 +58,8 @@ public class BulkCreationServiceTest {
     private CreateUpdatesBusSender createUpdatesBusSender;
     @Mock
     private UserService userService;
+    @Mock
+    private TaskExecutor bulkUpdateExecutor;
 
     private BulkRequest bulkRequest;
     private BulkRequest bulkRequest1;
@@ -149,7 +154,8 @@ public class BulkCreationServiceTest {
         submitEvent3.setState("Accepted");
         submitEvent3.setCaseData(getCaseData("1122"));
         bulkSearchService = new BulkSearchService(ccdClient, multipleReferenceService);
-        bulkCreationService = new BulkCreationService(ccdClient, bulkSearchService, createUpdatesBusSender, userService);
+        bulkCreationService = new BulkCreationService(ccdClient, bulkSearchService, createUpdatesBusSender, userService,
+                bulkUpdateExecutor);
 
         bulkCasesPayload = new BulkCasesPayload();
         bulkCasesPayload.setAlreadyTakenIds(new ArrayList<>());
@@ -342,6 +348,7 @@ public class BulkCreationServiceTest {
         BulkRequestPayload bulkRequestPayload = bulkCreationService.bulkCreationLogic(getBulkDetails(YES, "Single"),
                 bulkCasesPayload, "authToken", UPDATE_SINGLES_STEP);
         assertNull(bulkRequestPayload.getBulkDetails().getCaseData().getMultipleReference());
+        verify(bulkUpdateExecutor, times(3)).execute(any(Runnable.class));
     }
 
     @Test
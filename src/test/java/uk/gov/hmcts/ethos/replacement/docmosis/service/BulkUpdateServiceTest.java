@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import uk.gov.hmcts.ecm.common.client.CcdClient;
 import uk.gov.hmcts.ecm.common.model.bulk.BulkData;
@@ -64,6 +65,8 @@ public class BulkUpdateServiceTest {
     private UserService userService;
     @Mock
     private CreateUpdatesBusSender createUpdatesBusSender;
+    @Mock
+    private TaskExecutor bulkUpdateExecutor;
 
     private CCDRequest ccdRequest;
     private BulkRequest bulkRequest;
@@ -127,7 +130,7 @@ public class BulkUpdateServiceTest {
         submitBulkEvent.setCaseId(1111);
         submitBulkEvent.setCaseData(bulkData);
 
-        bulkUpdateService = new BulkUpdateService(ccdClient, userService, createUpdatesBusSender);
+        bulkUpdateService = new BulkUpdateService(ccdClient, userService, createUpdatesBusSender, bulkUpdateExecutor);
 
         bulkRequestPayload = new BulkRequestPayload();
         bulkRequestPayload.setBulkDetails(bulkDetails);
@@ -0,0 +1,129 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentCacheTest {
+
+    private static final String FIRST_UUID = "85d97996-22a5-40d7-882e-3a382c8ae1b4";
+    private static final String SECOND_UUID = "20d8a494-4232-480a-aac3-23ad0746c07b";
+    private static final String THIRD_UUID = "3d8c1f2a-5b6e-4c7d-8e9f-0a1b2c3d4e5f";
+    private static final String ETAG = "\"etag\"";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadCachedDocument() throws IOException {
+        var cache = cache(true, 100);
+        cache.put(FIRST_UUID, "file.xlsx", "application/excel", ETAG, content("Hello"));
+
+        var cached = cache.get(FIRST_UUID);
+
+        assertNotNull(cached);
+        assertEquals("file.xlsx", cached.getName());
+        assertEquals("application/excel", cached.getContentType());
+        assertEquals(ETAG, cached.getETag());
+        assertEquals(5, cached.contentLength());
+        try (var inputStream = cached.getInputStream()) {
+            assertEquals("Hello", new String(inputStream.readAllBytes()));
+        }
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedDocument() throws IOException {
+        var cache = cache(true, 10);
+        cache.put(FIRST_UUID, "first", null, ETAG, content("Hello"));
+        cache.put(SECOND_UUID, "second", null, ETAG, content("World"));
+        cache.get(FIRST_UUID);
+
+        cache.put(THIRD_UUID, "third", null, ETAG, content("Again"));
+
+        assertNotNull(cache.get(FIRST_UUID));
+        assertNull(cache.get(SECOND_UUID));
+        assertNotNull(cache.get(THIRD_UUID));
+        assertFalse(Files.exists(temporaryFolder.getRoot().toPath().resolve(SECOND_UUID)));
+    }
+
+    @Test
+    public void shouldRemoveDocument() throws IOException {
+        var cache = cache(true, 100);
+        cache.put(FIRST_UUID, "first", null, ETAG, content("Hello"));
+
+        cache.remove(FIRST_UUID);
+
+        assertNull(cache.get(FIRST_UUID));
+        assertFalse(Files.exists(temporaryFolder.getRoot().toPath().resolve(FIRST_UUID)));
+    }
+
+    @Test
+    public void shouldNotCacheDocumentLargerThanCache() throws IOException {
+        var cache = cache(true, 4);
+
+        assertFalse(cache.accepts(FIRST_UUID, 5));
+        assertNull(cache.put(FIRST_UUID, "first", null, ETAG, content("Hello")));
+        assertNull(cache.get(FIRST_UUID));
+        try (var files = Files.list(temporaryFolder.getRoot().toPath())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void shouldOnlyCacheDocumentUUIDs() throws IOException {
+        var cache = cache(true, 100);
+
+        assertTrue(cache.accepts(FIRST_UUID, 5));
+        assertFalse(cache.accepts("../" + FIRST_UUID, 5));
+        assertNull(cache.put("../" + FIRST_UUID, "first", null, ETAG, content("Hello")));
+    }
+
+    @Test
+    public void shouldNotCacheWithoutETag() throws IOException {
+        var cache = cache(true, 100);
+
+        assertNull(cache.put(FIRST_UUID, "first", null, null, content("Hello")));
+        assertNull(cache.get(FIRST_UUID));
+    }
+
+    @Test
+    public void shouldClearDocumentsLeftByEarlierRun() throws IOException {
+        var root = temporaryFolder.getRoot().toPath();
+        Files.write(root.resolve(FIRST_UUID), "Hello".getBytes());
+        Files.write(root.resolve(SECOND_UUID + "123.tmp"), "World".getBytes());
+        Files.write(root.resolve("other.txt"), "Other".getBytes());
+
+        cache(true, 100);
+
+        assertFalse(Files.exists(root.resolve(FIRST_UUID)));
+        assertFalse(Files.exists(root.resolve(SECOND_UUID + "123.tmp")));
+        assertTrue(Files.exists(root.resolve("other.txt")));
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() throws IOException {
+        var cache = cache(false, 100);
+
+        assertFalse(cache.accepts(FIRST_UUID, 5));
+        assertNull(cache.put(FIRST_UUID, "first", null, ETAG, content("Hello")));
+        assertNull(cache.get(FIRST_UUID));
+    }
+
+    private DocumentCache cache(boolean enabled, long maxSize) {
+        return new DocumentCache(enabled, temporaryFolder.getRoot().getPath(), maxSize);
+    }
+
+    private ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
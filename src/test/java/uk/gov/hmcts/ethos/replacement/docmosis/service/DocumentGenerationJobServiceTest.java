@@ -0,0 +1,159 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
+import uk.gov.hmcts.ecm.common.model.listing.ListingData;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJob;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.documentgeneration.DocumentGenerationJobStatus;
+import uk.gov.hmcts.ethos.replacement.docmosis.domain.repository.DocumentGenerationJobRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService.FAILED_MARK_UP;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService.MAX_ERROR_MESSAGE_LENGTH;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentGenerationJobService.PENDING_MARK_UP_PREFIX;
+
+public class DocumentGenerationJobServiceTest {
+
+    private static final String CASE_ID = "1234";
+    private static final String CASE_TYPE_ID = "ET_EnglandWales_Listings";
+    private static final String MARK_UP = "<a>Document</a>";
+
+    private DocumentGenerationJobRepository documentGenerationJobRepository;
+    private final Map<String, DocumentGenerationJob> jobs = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        documentGenerationJobRepository = mock(DocumentGenerationJobRepository.class);
+        when(documentGenerationJobRepository.save(any(DocumentGenerationJob.class))).thenAnswer(invocation -> {
+            DocumentGenerationJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(documentGenerationJobRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(jobs.get((String) invocation.getArgument(0))));
+    }
+
+    @Test
+    public void shouldNotSubmitWhenAsyncDisabled() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                false);
+
+        var pendingMarkUp = service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", this::documentInfo);
+
+        assertTrue(pendingMarkUp.isEmpty());
+        assertTrue(jobs.isEmpty());
+    }
+
+    @Test
+    public void shouldCompleteJobAndResolveMarkUp() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                true);
+
+        var pendingMarkUp = service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", this::documentInfo);
+
+        assertTrue(pendingMarkUp.isPresent());
+        assertTrue(pendingMarkUp.get().startsWith(PENDING_MARK_UP_PREFIX));
+        var job = jobs.values().iterator().next();
+        assertEquals(DocumentGenerationJobStatus.COMPLETED, job.getStatus());
+        assertEquals("http://document/binary", job.getDocumentUrl());
+        assertEquals(MARK_UP, service.resolveMarkUp(pendingMarkUp.get()));
+    }
+
+    @Test
+    public void shouldFailJob() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                true);
+
+        var pendingMarkUp = service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", () -> {
+            throw new IllegalStateException("Tornado unavailable");
+        });
+
+        var job = jobs.values().iterator().next();
+        assertEquals(DocumentGenerationJobStatus.FAILED, job.getStatus());
+        assertEquals("Tornado unavailable", job.getErrorMessage());
+        assertEquals(FAILED_MARK_UP, service.resolveMarkUp(pendingMarkUp.orElseThrow()));
+    }
+
+    @Test
+    public void shouldTruncateLongErrorMessage() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                true);
+
+        service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", () -> {
+            throw new IllegalStateException("x".repeat(MAX_ERROR_MESSAGE_LENGTH + 1));
+        });
+
+        var job = jobs.values().iterator().next();
+        assertEquals(MAX_ERROR_MESSAGE_LENGTH, job.getErrorMessage().length());
+    }
+
+    @Test
+    public void shouldRecordErrorWithoutMessage() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                true);
+
+        service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", () -> {
+            throw new NullPointerException();
+        });
+
+        var job = jobs.values().iterator().next();
+        assertEquals(NullPointerException.class.getName(), job.getErrorMessage());
+    }
+
+    @Test
+    public void shouldResolvePendingMarkUpOnListingData() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                true);
+        var listingData = new ListingData();
+        listingData.setDocMarkUp(service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", this::documentInfo)
+                .orElseThrow());
+
+        service.resolvePendingMarkUp(listingData);
+
+        assertEquals(MARK_UP, listingData.getDocMarkUp());
+    }
+
+    @Test
+    public void shouldFallBackToSynchronousWhenQueueFull() {
+        var executor = mock(TaskExecutor.class);
+        doThrow(new TaskRejectedException("full")).when(executor).execute(any(Runnable.class));
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, executor, true);
+
+        var pendingMarkUp = service.submitIfEnabled(CASE_ID, CASE_TYPE_ID, "doc", this::documentInfo);
+
+        assertTrue(pendingMarkUp.isEmpty());
+        verify(documentGenerationJobRepository).delete(any(DocumentGenerationJob.class));
+    }
+
+    @Test
+    public void shouldLeaveOtherMarkUpUnchanged() {
+        var service = new DocumentGenerationJobService(documentGenerationJobRepository, new SyncTaskExecutor(),
+                true);
+
+        assertEquals(MARK_UP, service.resolveMarkUp(MARK_UP));
+        assertEquals(PENDING_MARK_UP_PREFIX + "unknown", service.resolveMarkUp(PENDING_MARK_UP_PREFIX + "unknown"));
+    }
+
+    private DocumentInfo documentInfo() {
+        var documentInfo = new DocumentInfo();
+        documentInfo.setDescription("doc");
+        documentInfo.setUrl("http://document/binary");
+        documentInfo.setMarkUp(MARK_UP);
+        return documentInfo;
+    }
+}
@@ -1,13 +1,24 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicStatusLine;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -24,8 +35,10 @@ import uk.gov.hmcts.reform.document.DocumentDownloadClientApi;
 import uk.gov.hmcts.reform.document.DocumentUploadClientApi;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
@@ -34,10 +47,18 @@ import java.nio.file.Paths;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.OUTPUT_FILE_NAME;
 import static uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService.APPLICATION_DOCX_VALUE;
@@ -58,10 +79,16 @@ public class DocumentManagementServiceTest {
     private DocumentDownloadClientApi documentDownloadClientApi;
     @Mock
     private CaseDocumentClient caseDocumentClient;
+    @Mock
+    private CloseableHttpClient documentHttpClient;
+    @Mock
+    private DocumentCache documentCache;
     @InjectMocks
     private DocumentManagementService documentManagementService;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     private File file;
     private String markup;
@@ -77,6 +104,8 @@ public class DocumentManagementServiceTest {
         when(userService.getUserDetails(anyString())).thenReturn(userDetails);
         ReflectionTestUtils.setField(documentManagementService, "ccdDMStoreBaseUrl", "http://dm-store:8080");
         ReflectionTestUtils.setField(documentManagementService, "secureDocStoreEnabled", false);
+        ReflectionTestUtils.setField(documentManagementService, "documentManagementUrl", "http://dm-store:8080");
+        ReflectionTestUtils.setField(documentManagementService, "caseDocumentAmUrl", "http://cdam:4455");
     }
 
     @Test
@@ -170,4 +199,139 @@ public class DocumentManagementServiceTest {
         assertEquals("/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4", documentSelfPath.getPath());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void openDocument() throws IOException {
+        var response = mockHttpResponse(HttpStatus.PARTIAL_CONTENT.value());
+        var entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream("Hello".getBytes()));
+        when(response.getEntity()).thenReturn(entity);
+        when(response.getFirstHeader("originalfilename"))
+                .thenReturn(new BasicHeader("originalfilename", "fileName"));
+        when(documentHttpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+
+        try (var download = documentManagementService.openDocument("authString",
+                "http://dm-store:8080/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary", null,
+                HttpRange.createByteRange(0, 4))) {
+            assertTrue(download.isPartial());
+            assertEquals("fileName", download.getName());
+            try (var inputStream = download.getInputStream()) {
+                assertEquals("Hello", new String(inputStream.readAllBytes()));
+            }
+        }
+
+        var request = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(documentHttpClient).execute(request.capture());
+        assertEquals("http://dm-store:8080/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary",
+                request.getValue().getURI().toString());
+        assertEquals("bytes=0-4", request.getValue().getFirstHeader(HttpHeaders.RANGE).getValue());
+        assertEquals("authString", request.getValue().getFirstHeader("ServiceAuthorization").getValue());
+        verify(response, atLeastOnce()).close();
+    }
+
+    @Test
+    public void openDocumentNotModified() throws IOException {
+        ReflectionTestUtils.setField(documentManagementService, "secureDocStoreEnabled", true);
+        var response = mockHttpResponse(HttpStatus.NOT_MODIFIED.value());
+        when(documentHttpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+
+        try (var download = documentManagementService.openDocument("authString",
+                "http://dm-store:8080/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary", "\"etag\"", null)) {
+            assertTrue(download.isNotModified());
+        }
+
+        var request = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(documentHttpClient).execute(request.capture());
+        assertEquals("http://cdam:4455/cases/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary",
+                request.getValue().getURI().toString());
+        assertEquals("\"etag\"", request.getValue().getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        verify(userService, times(0)).getUserDetails(anyString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void openDocumentException() throws IOException {
+        var response = mockHttpResponse(HttpStatus.BAD_GATEWAY.value());
+        when(documentHttpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+        documentManagementService.openDocument("authString",
+                "documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary", null, null);
+    }
+
+    @Test
+    public void openCachedDocumentNotModified() throws IOException {
+        ReflectionTestUtils.setField(documentManagementService, "secureDocStoreEnabled", true);
+        var cachedDocument = cachedDocument("\"etag\"", "Hello");
+        when(documentCache.get("85d97996-22a5-40d7-882e-3a382c8ae1b4")).thenReturn(cachedDocument);
+        var response = mockHttpResponse(HttpStatus.NOT_MODIFIED.value());
+        when(documentHttpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+
+        try (var download = documentManagementService.openDocument("authString",
+                "http://dm-store:8080/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary", null, null)) {
+            assertTrue(download.isCached());
+            try (var inputStream = download.getInputStream()) {
+                assertEquals("Hello", new String(inputStream.readAllBytes()));
+            }
+        }
+
+        var request = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(documentHttpClient).execute(request.capture());
+        assertEquals("\"etag\"", request.getValue().getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        assertEquals("authString", request.getValue().getFirstHeader(HttpHeaders.AUTHORIZATION).getValue());
+        verify(response).close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void openCachedDocumentForbidden() throws IOException {
+        ReflectionTestUtils.setField(documentManagementService, "secureDocStoreEnabled", true);
+        var cachedDocument = cachedDocument("\"etag\"", "Hello");
+        when(documentCache.get("85d97996-22a5-40d7-882e-3a382c8ae1b4")).thenReturn(cachedDocument);
+        var response = mockHttpResponse(HttpStatus.FORBIDDEN.value());
+        when(documentHttpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+
+        documentManagementService.openDocument("authString",
+                "http://dm-store:8080/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary", null, null);
+    }
+
+    @Test
+    public void openDocumentWhenCachingFails() throws IOException {
+        when(documentCache.accepts(eq("85d97996-22a5-40d7-882e-3a382c8ae1b4"), anyLong())).thenReturn(true);
+        when(documentCache.put(anyString(), any(), any(), anyString(), any(InputStream.class)))
+                .thenThrow(new IOException("No space left on device"));
+        var cachedResponse = mockDownloadResponse("Hello");
+        var streamedResponse = mockDownloadResponse("Hello");
+        when(documentHttpClient.execute(any(HttpUriRequest.class))).thenReturn(cachedResponse, streamedResponse);
+
+        try (var download = documentManagementService.openDocument("authString",
+                "http://dm-store:8080/documents/85d97996-22a5-40d7-882e-3a382c8ae1b4/binary", null, null)) {
+            assertFalse(download.isCached());
+            try (var inputStream = download.getInputStream()) {
+                assertEquals("Hello", new String(inputStream.readAllBytes()));
+            }
+        }
+
+        verify(documentHttpClient, times(2)).execute(any(HttpUriRequest.class));
+        verify(documentCache, times(1)).put(anyString(), any(), any(), anyString(), any(InputStream.class));
+        verify(cachedResponse).close();
+    }
+
+    private CloseableHttpResponse mockDownloadResponse(String content) {
+        var response = mockHttpResponse(HttpStatus.OK.value());
+        var entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(content.getBytes()));
+        entity.setContentLength(content.length());
+        when(response.getEntity()).thenReturn(entity);
+        when(response.getFirstHeader(HttpHeaders.ETAG)).thenReturn(new BasicHeader(HttpHeaders.ETAG, "\"etag\""));
+        return response;
+    }
+
+    private DocumentCache.CachedDocument cachedDocument(String eTag, String content) throws IOException {
+        var cache = new DocumentCache(true, temporaryFolder.getRoot().getPath(), 100);
+        return cache.put("85d97996-22a5-40d7-882e-3a382c8ae1b4", "fileName", "text/plain", eTag,
+                new ByteArrayInputStream(content.getBytes()));
+    }
+
+    private CloseableHttpResponse mockHttpResponse(int statusCode) {
+        var response = mock(CloseableHttpResponse.class);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, ""));
+        return response;
+    }
+}
@@ -639,15 +639,17 @@ public class ListingServiceTest {
 
     @Test
     public void processHearingDocument() throws IOException {
-        when(tornadoService.listingGeneration(anyString(), any(), anyString())).thenReturn(documentInfo);
-        DocumentInfo documentInfo1 = listingService.processHearingDocument(listingDetails.getCaseData(), listingDetails.getCaseTypeId(), "authToken");
+        when(tornadoService.listingGeneration(anyString(), any(), anyString(), any())).thenReturn(documentInfo);
+        DocumentInfo documentInfo1 = listingService.processHearingDocument(listingDetails.getCaseData(),
+                listingDetails.getCaseTypeId(), listingDetails.getCaseId(), "authToken");
         assertEquals(documentInfo, documentInfo1);
     }
 
     @Test(expected = Exception.class)
     public void processHearingDocumentWithException() throws IOException {
-        when(tornadoService.listingGeneration(anyString(), any(), anyString())).thenThrow(new InternalException(ERROR_MESSAGE));
-        listingService.processHearingDocument(listingDetails.getCaseData(), listingDetails.getCaseTypeId(), "authToken");
+        when(tornadoService.listingGeneration(anyString(), any(), anyString(), any())).thenThrow(new InternalException(ERROR_MESSAGE));
+        listingService.processHearingDocument(listingDetails.getCaseData(), listingDetails.getCaseTypeId(),
+                listingDetails.getCaseId(), "authToken");
     }
 
     @Test
@@ -0,0 +1,71 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.junit.Test;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class RenderedDocumentCacheTest {
+
+    private static final String CASE_TYPE_ID = "ET_EnglandWales_Listings";
+    private static final String CASE_ID = "1646225213651590";
+
+    @Test
+    public void shouldIgnoreTodayDateInKey() {
+        var cache = new RenderedDocumentCache(true, 10, Duration.ofMinutes(10));
+
+        var first = cache.getKey(instruction("12 October 2022"), CASE_TYPE_ID, CASE_ID);
+        var second = cache.getKey(instruction("13 October 2022"), CASE_TYPE_ID, CASE_ID);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void shouldIncludeContentCaseTypeAndCaseInKey() {
+        var cache = new RenderedDocumentCache(true, 10, Duration.ofMinutes(10));
+        var key = cache.getKey(instruction("12 October 2022"), CASE_TYPE_ID, CASE_ID);
+
+        var otherContent = new StringBuilder(instruction("12 October 2022")).insert(1, "\"Clerk\":\"Mike\",\n");
+        assertNotEquals(key, cache.getKey(otherContent, CASE_TYPE_ID, CASE_ID));
+        assertNotEquals(key, cache.getKey(instruction("12 October 2022"), "ET_Scotland_Listings", CASE_ID));
+        assertNotEquals(key, cache.getKey(instruction("12 October 2022"), CASE_TYPE_ID, "1646225213651591"));
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedDocument() {
+        var cache = new RenderedDocumentCache(true, 10, Duration.ofMinutes(10));
+        var documentInfo = documentInfo();
+        cache.put("key", documentInfo);
+
+        var cached = cache.get("key").orElseThrow();
+
+        assertNotSame(documentInfo, cached);
+        assertEquals(documentInfo.getUrl(), cached.getUrl());
+        assertEquals(documentInfo.getMarkUp(), cached.getMarkUp());
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() {
+        var cache = new RenderedDocumentCache(false, 10, Duration.ofMinutes(10));
+        cache.put("key", documentInfo());
+
+        assertTrue(cache.get("key").isEmpty());
+    }
+
+    private StringBuilder instruction(String todayDate) {
+        return new StringBuilder("{\n\"data\":{\n\"Today_date\":\"" + todayDate + "\"\n}\n}\n");
+    }
+
+    private DocumentInfo documentInfo() {
+        var documentInfo = new DocumentInfo();
+        documentInfo.setDescription("doc");
+        documentInfo.setUrl("http://document/binary");
+        documentInfo.setMarkUp("<a>Document</a>");
+        return documentInfo;
+    }
+}
@@ -0,0 +1,59 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class SpooledMultipartFileTest {
+
+    private static final String NAME = "files";
+    private static final String FILE_NAME = "document.docx";
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    @Test
+    public void shouldKeepSmallContentInMemory() throws IOException {
+        var bytes = new byte[] {1, 2, 3};
+
+        try (var file = SpooledMultipartFile.create(NAME, FILE_NAME, CONTENT_TYPE,
+                new ByteArrayInputStream(bytes), 10)) {
+            assertTrue(file.isInMemory());
+            assertEquals(NAME, file.getName());
+            assertEquals(FILE_NAME, file.getOriginalFilename());
+            assertEquals(CONTENT_TYPE, file.getContentType());
+            assertEquals(3, file.getSize());
+            assertArrayEquals(bytes, file.getBytes());
+        }
+    }
+
+    @Test
+    public void shouldSpoolLargeContentToTemporaryFile() throws IOException {
+        var bytes = new byte[100_000];
+        for (var i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        var file = SpooledMultipartFile.create(NAME, FILE_NAME, CONTENT_TYPE, new ByteArrayInputStream(bytes), 1024);
+        assertFalse(file.isInMemory());
+        assertEquals(bytes.length, file.getSize());
+        assertArrayEquals(bytes, file.getBytes());
+        try (var inputStream = file.getInputStream()) {
+            assertArrayEquals(bytes, inputStream.readAllBytes());
+        }
+
+        var tempFile = Files.createTempFile("spooled", ".docx");
+        file.transferTo(tempFile.toFile());
+        assertArrayEquals(bytes, Files.readAllBytes(tempFile));
+        Files.delete(tempFile);
+
+        file.close();
+        assertThrows(IOException.class, file::getInputStream);
+    }
+}
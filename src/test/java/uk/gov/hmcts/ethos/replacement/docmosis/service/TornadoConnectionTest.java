@@ -1,29 +1,45 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoConfiguration;
-import uk.gov.hmcts.ethos.replacement.docmosis.utils.MockHttpURLConnectionFactory;
+import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoHttpClientConfiguration;
 
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class TornadoConnectionTest {
 
     @Test
-    public void shouldCreateConnection() throws IOException {
+    public void shouldExecuteRenderRequest() throws IOException {
         var url = "http://tornadotest";
         var tornadoConfiguration = new TornadoConfiguration();
         tornadoConfiguration.setUrl(url);
-        var mockConnection = MockHttpURLConnectionFactory.create(url);
+        var httpClient = mock(CloseableHttpClient.class);
+        var mockResponse = mock(CloseableHttpResponse.class);
+        when(httpClient.execute(any(HttpPost.class))).thenReturn(mockResponse);
+        var instruction = new StringEntity("{}", ContentType.APPLICATION_JSON);
 
-        var tornadoConnection = new TornadoConnection(tornadoConfiguration);
-        var connection = tornadoConnection.createConnection();
+        var tornadoConnection = new TornadoConnection(tornadoConfiguration, httpClient);
+        var response = tornadoConnection.execute(instruction);
 
-        assertEquals(mockConnection, connection);
-        verify(mockConnection, times(1)).connect();
+        assertEquals(mockResponse, response);
+        var captor = ArgumentCaptor.forClass(HttpPost.class);
+        verify(httpClient, times(1)).execute(captor.capture());
+        assertEquals(url, captor.getValue().getURI().toString());
+        assertEquals(instruction, captor.getValue().getEntity());
     }
 
     @Test
@@ -32,9 +48,19 @@ public class TornadoConnectionTest {
         var tornadoConfiguration = new TornadoConfiguration();
         tornadoConfiguration.setAccessKey(accessKey);
 
-        var tornadoConnection = new TornadoConnection(tornadoConfiguration);
+        var tornadoConnection = new TornadoConnection(tornadoConfiguration, mock(CloseableHttpClient.class));
         var actualAccessKey = tornadoConnection.getAccessKey();
 
         assertEquals(actualAccessKey, accessKey);
     }
+
+    @Test
+    public void shouldCreatePooledHttpClient() throws IOException {
+        var tornadoConfiguration = new TornadoConfiguration();
+        tornadoConfiguration.setMaxConnectionsPerRoute(5);
+
+        try (var httpClient = new TornadoHttpClientConfiguration().tornadoHttpClient(tornadoConfiguration)) {
+            assertNotNull(httpClient);
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.apache.http.entity.ContentType;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TornadoInstructionEntityTest {
+
+    @Test
+    public void shouldWriteInstructionAsUtf8() throws IOException {
+        var sb = new StringBuilder();
+        sb.append("{\n\"accessKey\":\"key\",\n\"data\":{\n");
+        for (var i = 0; i < 5000; i++) {
+            sb.append("\"name").append(i).append("\":\"Zo\u00eb \u0174\u20ac\",\n");
+        }
+        sb.append("}\n}\n");
+        var entity = new TornadoInstructionEntity(sb);
+
+        var outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+
+        assertArrayEquals(sb.toString().getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+        assertEquals(outputStream.size(), entity.getBytesWritten());
+    }
+
+    @Test
+    public void shouldBeRepeatableJsonEntity() throws IOException {
+        var entity = new TornadoInstructionEntity(new StringBuilder("{}"));
+
+        assertTrue(entity.isRepeatable());
+        assertTrue(entity.isChunked());
+        assertEquals(ContentType.APPLICATION_JSON.toString(), entity.getContentType().getValue());
+        assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), entity.getContent().readAllBytes());
+    }
+}
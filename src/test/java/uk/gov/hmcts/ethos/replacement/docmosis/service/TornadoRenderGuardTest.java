@@ -0,0 +1,127 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoConfiguration;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TornadoRenderGuardTest {
+
+    private TornadoConfiguration tornadoConfiguration;
+    private final AtomicLong clock = new AtomicLong();
+
+    @Before
+    public void setUp() {
+        tornadoConfiguration = new TornadoConfiguration();
+        tornadoConfiguration.setMaxConcurrentRenders(2);
+        tornadoConfiguration.setBulkheadMaxWait(0);
+        var circuitBreaker = tornadoConfiguration.getCircuitBreaker();
+        circuitBreaker.setSlidingWindowSize(4);
+        circuitBreaker.setMinimumNumberOfCalls(4);
+        circuitBreaker.setFailureRateThreshold(50);
+        circuitBreaker.setSlowCallRateThreshold(100);
+        circuitBreaker.setSlowCallDurationThreshold(1000);
+        circuitBreaker.setWaitDurationInOpenState(5000);
+        circuitBreaker.setPermittedCallsInHalfOpenState(1);
+    }
+
+    @Test
+    public void shouldReturnResponse() throws IOException {
+        var guard = new TornadoRenderGuard(tornadoConfiguration, clock::get);
+        var response = response(HTTP_OK);
+
+        assertSame(response, guard.execute(() -> response));
+        assertEquals(TornadoRenderGuard.State.CLOSED, guard.getState());
+        assertEquals(2, guard.getAvailableRenders());
+    }
+
+    @Test
+    public void shouldRejectWhenBulkheadFull() {
+        tornadoConfiguration.setMaxConcurrentRenders(0);
+        var guard = new TornadoRenderGuard(tornadoConfiguration, clock::get);
+
+        var exception = assertThrows(IOException.class, () -> guard.execute(() -> response(HTTP_OK)));
+        assertEquals(TornadoRenderGuard.BULKHEAD_FULL_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    public void shouldOpenAfterFailures() throws IOException {
+        var guard = new TornadoRenderGuard(tornadoConfiguration, clock::get);
+
+        guard.execute(() -> response(HTTP_OK));
+        guard.execute(() -> response(HTTP_BAD_REQUEST));
+        guard.execute(() -> response(HTTP_INTERNAL_ERROR));
+        assertThrows(IOException.class, () -> guard.execute(() -> {
+            throw new IOException("Connection refused");
+        }));
+
+        assertEquals(TornadoRenderGuard.State.OPEN, guard.getState());
+        var exception = assertThrows(IOException.class, () -> guard.execute(() -> response(HTTP_OK)));
+        assertEquals(TornadoRenderGuard.CIRCUIT_OPEN_MESSAGE, exception.getMessage());
+        assertEquals(2, guard.getAvailableRenders());
+    }
+
+    @Test
+    public void shouldOpenAfterSlowCalls() throws IOException {
+        var guard = new TornadoRenderGuard(tornadoConfiguration, clock::get);
+
+        for (var i = 0; i < 4; i++) {
+            guard.execute(() -> {
+                clock.addAndGet(1000);
+                return response(HTTP_OK);
+            });
+        }
+
+        assertEquals(TornadoRenderGuard.State.OPEN, guard.getState());
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulCallInHalfOpenState() throws IOException {
+        var guard = openCircuit();
+
+        clock.addAndGet(5000);
+        guard.execute(() -> response(HTTP_OK));
+
+        assertEquals(TornadoRenderGuard.State.CLOSED, guard.getState());
+        assertEquals(0, guard.getFailureRate());
+    }
+
+    @Test
+    public void shouldReopenAfterFailedCallInHalfOpenState() throws IOException {
+        var guard = openCircuit();
+
+        clock.addAndGet(5000);
+        guard.execute(() -> response(HTTP_INTERNAL_ERROR));
+
+        assertEquals(TornadoRenderGuard.State.OPEN, guard.getState());
+    }
+
+    private TornadoRenderGuard openCircuit() throws IOException {
+        var guard = new TornadoRenderGuard(tornadoConfiguration, clock::get);
+        for (var i = 0; i < 4; i++) {
+            guard.execute(() -> response(HTTP_INTERNAL_ERROR));
+        }
+        assertEquals(TornadoRenderGuard.State.OPEN, guard.getState());
+        return guard;
+    }
+
+    private CloseableHttpResponse response(int statusCode) {
+        var response = mock(CloseableHttpResponse.class);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, ""));
+        return response;
+    }
+}
@@ -1,7 +1,14 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicStatusLine;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.web.multipart.MultipartFile;
 import uk.gov.hmcts.ecm.common.model.bulk.BulkData;
 import uk.gov.hmcts.ecm.common.model.bulk.types.DynamicFixedListType;
 import uk.gov.hmcts.ecm.common.model.ccd.CaseData;
@@ -13,16 +20,14 @@ import uk.gov.hmcts.ecm.common.model.listing.ListingData;
 import uk.gov.hmcts.ecm.common.model.listing.items.ListingTypeItem;
 import uk.gov.hmcts.ecm.common.model.listing.types.ListingType;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
+import uk.gov.hmcts.ethos.replacement.docmosis.config.TornadoConfiguration;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.HelperTest;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.SignificantItemType;
 import uk.gov.hmcts.ethos.replacement.docmosis.idam.IdamApi;
-import uk.gov.hmcts.ethos.replacement.docmosis.utils.MockHttpURLConnectionFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 
@@ -30,9 +35,11 @@ import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.CLAIMS_ACCEPTED_REPORT;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.HEARING_DOC_ETCL;
@@ -51,8 +58,9 @@ public class TornadoServiceTest {
     private UserService userService;
     private DefaultValuesReaderService defaultValuesReaderService;
     private VenueAddressReaderService venueAddressReaderService;
-    private HttpURLConnection mockConnection;
+    private SimpleMeterRegistry meterRegistry;
     private final String authToken = "a-test-auth-token";
+    private final String caseId = "1646225213651590";
     private final String documentInfoMarkup = "<a>some test markup</a>";
 
     @Before
@@ -62,14 +70,17 @@ public class TornadoServiceTest {
         mockDocumentManagement();
         mockDefaultValuesReaderService();
         mockVenueAddressReaderService();
+        meterRegistry = new SimpleMeterRegistry();
 
-        tornadoService = new TornadoService(tornadoConnection, documentManagementService, userService, defaultValuesReaderService, venueAddressReaderService);
+        tornadoService = new TornadoService(tornadoConnection, documentManagementService, userService, defaultValuesReaderService, venueAddressReaderService,
+                new RenderedDocumentCache(true, 10, Duration.ofMinutes(10)), new TornadoRenderGuard(new TornadoConfiguration()),
+                new TornadoMetrics(meterRegistry), new TornadoConfiguration());
     }
 
     @Test(expected = IOException.class)
     public void documentGenerationNoTornadoConnectionShouldThrowException() throws IOException {
         var caseData = new CaseData();
-        when(tornadoConnection.createConnection()).thenThrow(IOException.class);
+        when(tornadoConnection.execute(any(HttpEntity.class))).thenThrow(IOException.class);
 
         tornadoService.documentGeneration(authToken, caseData, ENGLANDWALES_CASE_TYPE_ID,
                 caseData.getCorrespondenceType(), caseData.getCorrespondenceScotType(), null);
@@ -77,14 +88,14 @@ public class TornadoServiceTest {
 
     @Test(expected = IOException.class)
     public void listingGenerationNoTornadoConnectionShouldThrowException() throws IOException {
-        when(tornadoConnection.createConnection()).thenThrow(IOException.class);
+        when(tornadoConnection.execute(any(HttpEntity.class))).thenThrow(IOException.class);
 
-        tornadoService.listingGeneration(authToken, createListingData(), ENGLANDWALES_LISTING_CASE_TYPE_ID);
+        tornadoService.listingGeneration(authToken, createListingData(), ENGLANDWALES_LISTING_CASE_TYPE_ID, caseId);
     }
 
     @Test(expected = IOException.class)
     public void scheduleGenerationNoTornadoConnectionShouldThrowException() throws IOException {
-        when(tornadoConnection.createConnection()).thenThrow(IOException.class);
+        when(tornadoConnection.execute(any(HttpEntity.class))).thenThrow(IOException.class);
 
         tornadoService.scheduleGeneration(authToken, createBulkData(), ENGLANDWALES_LISTING_CASE_TYPE_ID);
     }
@@ -147,16 +158,75 @@ public class TornadoServiceTest {
         verifyDocumentInfo(documentInfo);
     }
 
+    @Test
+    public void shouldRenderDocumentWithoutUploading() throws IOException {
+        mockConnectionSuccess();
+        var caseData = new CaseData();
+
+        try (var file = tornadoService.renderDocument(HelperTest.getUserDetails(), caseData,
+                ENGLANDWALES_CASE_TYPE_ID, caseData.getCorrespondenceType(), caseData.getCorrespondenceScotType(),
+                null)) {
+            assertEquals(0, file.getSize());
+        }
+        verify(documentManagementService, never()).uploadDocument(anyString(), any(MultipartFile.class),
+                anyString());
+    }
+
     @Test
     public void shouldCreateDocumentInfoForListingGeneration() throws IOException {
         mockConnectionSuccess();
         var listingData = createListingData();
 
-        var documentInfo = tornadoService.listingGeneration(authToken, listingData, ENGLANDWALES_LISTING_CASE_TYPE_ID);
+        var documentInfo = tornadoService.listingGeneration(authToken, listingData, ENGLANDWALES_LISTING_CASE_TYPE_ID,
+                caseId);
 
         verifyDocumentInfo(documentInfo);
     }
 
+    @Test
+    public void shouldReuseRenderedDocumentForRepeatedListingGeneration() throws IOException {
+        mockConnectionSuccess();
+
+        var first = tornadoService.listingGeneration(authToken, createListingData(),
+                ENGLANDWALES_LISTING_CASE_TYPE_ID, caseId);
+        var second = tornadoService.listingGeneration(authToken, createListingData(),
+                ENGLANDWALES_LISTING_CASE_TYPE_ID, caseId);
+
+        verifyDocumentInfo(second);
+        assertEquals(first.getUrl(), second.getUrl());
+        verify(tornadoConnection, times(1)).execute(any(HttpEntity.class));
+        verify(documentManagementService, times(1)).uploadDocument(anyString(), any(MultipartFile.class),
+                anyString());
+    }
+
+    @Test
+    public void shouldNotReuseRenderedDocumentForAnotherCase() throws IOException {
+        mockConnectionSuccess();
+
+        tornadoService.listingGeneration(authToken, createListingData(), ENGLANDWALES_LISTING_CASE_TYPE_ID, caseId);
+        tornadoService.listingGeneration(authToken, createListingData(), ENGLANDWALES_LISTING_CASE_TYPE_ID,
+                "1646225213651591");
+
+        verify(tornadoConnection, times(2)).execute(any(HttpEntity.class));
+        verify(documentManagementService, times(2)).uploadDocument(anyString(), any(MultipartFile.class),
+                anyString());
+    }
+
+    @Test
+    public void shouldRecordPhaseMetricsForListingGeneration() throws IOException {
+        mockConnectionSuccess();
+        var listingData = createListingData();
+
+        tornadoService.listingGeneration(authToken, listingData, ENGLANDWALES_LISTING_CASE_TYPE_ID, caseId);
+
+        for (var phase : new String[] {"build", "wait", "write", "render", "read", "upload"}) {
+            assertEquals(phase, 1, meterRegistry.get("tornado.render.phase").tag("phase", phase)
+                    .tag("caseType", ENGLANDWALES_LISTING_CASE_TYPE_ID).timer().count());
+        }
+        assertEquals(1, meterRegistry.get("tornado.instruction.size").summary().count());
+        assertEquals(1, meterRegistry.get("tornado.document.size").summary().count());
+    }
+
     @Test
     public void shouldCreateDocumentInforForScheduleGeneration() throws IOException {
         mockConnectionSuccess();
@@ -176,7 +246,7 @@ public class TornadoServiceTest {
         listingData.setReportType(CLAIMS_ACCEPTED_REPORT);
 
         var documentInfo = tornadoService.listingGeneration(authToken, listingData,
-                ENGLANDWALES_LISTING_CASE_TYPE_ID);
+                ENGLANDWALES_LISTING_CASE_TYPE_ID, caseId);
 
         verifyDocumentInfo(documentInfo);
     }
@@ -187,17 +257,15 @@ public class TornadoServiceTest {
         userService = new UserService(idamApi);
     }
 
-    private void mockTornadoConnection() throws IOException {
-        mockConnection = MockHttpURLConnectionFactory.create("http://testdocmosis");
+    private void mockTornadoConnection() {
         tornadoConnection = mock(TornadoConnection.class);
-        when(tornadoConnection.createConnection()).thenReturn(mockConnection);
     }
 
     private void mockDocumentManagement() {
         documentManagementService = mock(DocumentManagementService.class);
         var documentUrl = "http://testdocumentserver/testdocument";
         var uri = URI.create(documentUrl);
-        when(documentManagementService.uploadDocument(anyString(), any(byte[].class), anyString(), anyString(), anyString())).thenReturn(uri);
+        when(documentManagementService.uploadDocument(anyString(), any(MultipartFile.class), anyString())).thenReturn(uri);
         when(documentManagementService.generateDownloadableURL(uri)).thenReturn(documentUrl);
         when(documentManagementService.generateMarkupDocument(anyString())).thenReturn(documentInfoMarkup);
     }
@@ -211,22 +279,19 @@ public class TornadoServiceTest {
     }
 
     private void mockConnectionSuccess() throws IOException {
-        var mockInputStream = mock(InputStream.class);
-        when(mockInputStream.read(any(byte[].class))).thenReturn(-1);
-        var mockOutputStream = mock(OutputStream.class);
-        when(mockConnection.getInputStream()).thenReturn(mockInputStream);
-        when(mockConnection.getOutputStream()).thenReturn(mockOutputStream);
-        when(mockConnection.getResponseCode()).thenReturn(HTTP_OK);
+        mockConnection(HTTP_OK, "OK");
     }
 
     private void mockConnectionError() throws IOException {
-        var mockInputStream = mock(InputStream.class);
-        when(mockInputStream.read(any(byte[].class))).thenReturn(-1);
-        when(mockInputStream.read(any(byte[].class), anyInt(), anyInt())).thenReturn(-1);
-        var mockOutputStream = mock(OutputStream.class);
-        when(mockConnection.getErrorStream()).thenReturn(mockInputStream);
-        when(mockConnection.getOutputStream()).thenReturn(mockOutputStream);
-        when(mockConnection.getResponseCode()).thenReturn(HTTP_INTERNAL_ERROR);
+        mockConnection(HTTP_INTERNAL_ERROR, "Internal Server Error");
+    }
+
+    private void mockConnection(int statusCode, String reasonPhrase) throws IOException {
+        var mockResponse = mock(CloseableHttpResponse.class);
+        when(mockResponse.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode,
+                reasonPhrase));
+        when(mockResponse.getEntity()).thenReturn(new ByteArrayEntity(new byte[0]));
+        when(tornadoConnection.execute(any(HttpEntity.class))).thenReturn(mockResponse);
     }
 
     private ListingData createListingData() {
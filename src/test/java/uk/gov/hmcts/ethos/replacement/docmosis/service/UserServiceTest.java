@@ -1,18 +1,24 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import uk.gov.hmcts.ecm.common.idam.models.UserDetails;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.HelperTest;
 import uk.gov.hmcts.ethos.replacement.docmosis.idam.IdamApi;
 
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 public class UserServiceTest {
@@ -45,4 +51,28 @@ public class UserServiceTest {
         assertEquals(Collections.singletonList("role"), userService.getUserDetails("TOKEN").getRoles());
         assertEquals(userDetails.toString(), userService.getUserDetails("TOKEN").toString());
     }
+
+    @Test
+    public void shouldRetrieveUserDetailsOncePerRequest() {
+        var retrievals = new AtomicInteger();
+        userService = new UserService(authorisation -> {
+            retrievals.incrementAndGet();
+            return userDetails;
+        });
+        var request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals(userDetails, userService.getUserDetails("TOKEN"));
+        assertEquals(userDetails, userService.getUserDetails("TOKEN"));
+        assertEquals(1, retrievals.get());
+
+        userService.getUserDetails("OTHER_TOKEN");
+        assertEquals(2, retrievals.get());
+        assertFalse(Collections.list(request.getAttributeNames()).stream().anyMatch(name -> name.contains("TOKEN")));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
 }
\ No newline at end of file
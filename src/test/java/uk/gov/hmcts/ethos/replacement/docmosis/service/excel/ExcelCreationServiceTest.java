@@ -1,5 +1,6 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -7,11 +8,20 @@ import org.mockito.InjectMocks;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.TreeMap;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.CONSTRAINT_KEY;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.HIDDEN_SHEET_NAME;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.SHEET_NAME;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 public class ExcelCreationServiceTest {
@@ -29,34 +39,64 @@ public class ExcelCreationServiceTest {
     }
 
     @Test
-    public void writeExcelObjects() {
-        assertNotNull(excelCreationService.writeExcel(
+    public void writeExcelObjects() throws IOException {
+        var workbook = writeExcel(
                 new ArrayList<>(multipleObjects.values()),
                 new ArrayList<>(Arrays.asList("245000/1", "245000/1")),
-                leadLink));
+                leadLink);
+        var sheet = workbook.getSheet(SHEET_NAME);
+        assertEquals(multipleObjects.size(), sheet.getLastRowNum());
+        assertTrue(sheet.validateSheetPassword(CONSTRAINT_KEY));
+        assertEquals(1, sheet.getDataValidations().size());
+        assertTrue(workbook.isSheetHidden(workbook.getSheetIndex(HIDDEN_SHEET_NAME)));
     }
 
     @Test
-    public void writeExcelObjectsEmptySubMultiples() {
-        assertNotNull(excelCreationService.writeExcel(
+    public void writeExcelObjectsEmptySubMultiples() throws IOException {
+        var workbook = writeExcel(
                 new ArrayList<>(multipleObjects.values()),
                 new ArrayList<>(),
-                leadLink));
+                leadLink);
+        assertTrue(workbook.getSheet(SHEET_NAME).getDataValidations().isEmpty());
     }
 
     @Test
-    public void writeExcelString() {
-        assertNotNull(excelCreationService.writeExcel(
+    public void writeExcelString() throws IOException {
+        var workbook = writeExcel(
                 new ArrayList<>(Arrays.asList("245000/2020", "245001/2020", "245002/2020")),
                 new ArrayList<>(),
-                leadLink));
+                leadLink);
+        var sheet = workbook.getSheet(SHEET_NAME);
+        assertEquals(3, sheet.getLastRowNum());
+        assertEquals("245001/2020", sheet.getRow(2).getCell(0).getStringCellValue());
     }
 
     @Test
-    public void writeExcelStringEmpty() {
-        assertNotNull(excelCreationService.writeExcel(
+    public void writeExcelStringEmpty() throws IOException {
+        var workbook = writeExcel(
                 new ArrayList<>(),
                 new ArrayList<>(),
-                leadLink));
+                leadLink);
+        assertNotNull(workbook.getSheet(SHEET_NAME));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void writeExcelManyRows() throws IOException {
+        List<String> caseRefs = new ArrayList<>();
+        for (var i = 0; i < 1000; i++) {
+            caseRefs.add((245000 + i) + "/2020");
+        }
+        var workbook = writeExcel(caseRefs, new ArrayList<>(), leadLink);
+        var sheet = workbook.getSheet(SHEET_NAME);
+        assertEquals(1000, sheet.getLastRowNum());
+        assertTrue(workbook.getNumCellStyles() < 5);
+        assertEquals("245999/2020", sheet.getRow(1000).getCell(0).getStringCellValue());
+    }
+
+    private XSSFWorkbook writeExcel(List<?> multipleCollection, List<String> subMultipleCollection,
+                                    String leadCaseString) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        excelCreationService.writeExcel(outputStream, multipleCollection, subMultipleCollection, leadCaseString);
+        return new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+}
@@ -1,39 +1,60 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 import uk.gov.hmcts.ecm.common.idam.models.UserDetails;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
+import uk.gov.hmcts.ecm.common.model.multiples.MultipleObject;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.HelperTest;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesHelper;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentDownload;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.DocumentManagementService;
 import uk.gov.hmcts.ethos.replacement.docmosis.service.UserService;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.TreeMap;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.HEADER_1;
+import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.SHEET_NAME;
 import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.ExcelDocManagementService.APPLICATION_EXCEL_VALUE;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 public class ExcelDocManagementServiceTest {
 
+    private static final String PREVIOUS_EXCEL_BINARY_URL =
+            "http://127.0.0.1:3453/documents/20d8a494-4232-480a-aac3-23ad0746c07b/binary";
+
     @Mock
     private DocumentManagementService documentManagementService;
     @Mock
@@ -44,6 +65,8 @@ public class ExcelDocManagementServiceTest {
     private ScheduleCreationService scheduleCreationService;
     @InjectMocks
     private ExcelDocManagementService excelDocManagementService;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     private MultipleDetails multipleDetails;
     private String userToken;
@@ -74,94 +97,141 @@ public class ExcelDocManagementServiceTest {
                     bytes,
                     MultiplesHelper.generateExcelDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE,
                     multipleDetails.getCaseTypeId());
+            verify(documentManagementService, times(1)).evictDocument(PREVIOUS_EXCEL_BINARY_URL);
             verifyNoMoreInteractions(documentManagementService);
         }
 
     @Test
     public void downloadExcelDocument() throws IOException {
         String binaryUrl = "http://127.0.0.1:3453/documents/20d8a494-4232-480a-aac3-23ad0746c07b/binary";
-        when(documentManagementService.downloadFile(userToken,
-                binaryUrl))
-                .thenReturn(MultipleUtil.getUploadedDocument());
-        assertNotNull(excelDocManagementService.downloadExcelDocument(userToken, binaryUrl));
+        DocumentDownload download = mock(DocumentDownload.class);
+        when(download.getInputStream()).thenReturn(new ByteArrayInputStream(bytes));
+        when(documentManagementService.openDocument(userToken, binaryUrl, null, null)).thenReturn(download);
+        try (var inputStream = excelDocManagementService.downloadExcelDocument(userToken, binaryUrl)) {
+            assertArrayEquals(bytes, inputStream.readAllBytes());
+        }
     }
 
     @Test
-    public void generateAndUploadExcel() {
+    public void generateAndUploadExcel() throws IOException {
         URI uri = URI.create("http://google.com");
         List<String> multipleCollection = new ArrayList<>(Arrays.asList("245000/2020", "245001/2020", "245002/2020"));
         List<String> subMultipleCollection = MultiplesHelper.generateSubMultipleStringCollection(multipleDetails.getCaseData());
-        when(documentManagementService.uploadDocument(userToken,
-                bytes,
-                MultiplesHelper.generateExcelDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE, multipleDetails.getCaseTypeId()))
-                .thenReturn(uri);
-        when(excelCreationService.writeExcel(multipleCollection,
-                subMultipleCollection,
-                multipleDetails.getCaseData().getLeadCase()))
-                .thenReturn(bytes);
+        when(documentManagementService.uploadDocument(eq(userToken), any(MultipartFile.class),
+                eq(multipleDetails.getCaseTypeId())))
+                .thenAnswer(invocation -> {
+                    MultipartFile file = invocation.getArgument(1);
+                    assertEquals(MultiplesHelper.generateExcelDocumentName(multipleDetails.getCaseData()),
+                            file.getOriginalFilename());
+                    assertEquals(APPLICATION_EXCEL_VALUE, file.getContentType());
+                    assertArrayEquals(bytes, file.getBytes());
+                    return uri;
+                });
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(bytes);
+            return null;
+        }).when(excelCreationService).writeExcel(any(OutputStream.class), eq(multipleCollection),
+                eq(subMultipleCollection), eq(multipleDetails.getCaseData().getLeadCase()));
         excelDocManagementService.generateAndUploadExcel(multipleCollection,
                 userToken, multipleDetails);
-        verify(documentManagementService, times(1)).uploadDocument(userToken,
-                bytes,
-                MultiplesHelper.generateExcelDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE,
-                multipleDetails.getCaseTypeId());
+        verify(documentManagementService, times(1)).uploadDocument(eq(userToken), any(MultipartFile.class),
+                eq(multipleDetails.getCaseTypeId()));
+        verify(documentManagementService, times(1)).evictDocument(PREVIOUS_EXCEL_BINARY_URL);
         verifyNoMoreInteractions(documentManagementService);
-        verify(excelCreationService, times(1)).writeExcel(multipleCollection,
-                subMultipleCollection,
-                multipleDetails.getCaseData().getLeadCase());
+        verify(excelCreationService, times(1)).writeExcel(any(OutputStream.class), eq(multipleCollection),
+                eq(subMultipleCollection), eq(multipleDetails.getCaseData().getLeadCase()));
         verifyNoMoreInteractions(excelCreationService);
         assertEquals("3", multipleDetails.getCaseData().getCaseCounter());
     }
 
     @Test
-    public void generateAndUploadExcelEmptySubMultipleCollection() {
+    public void generateAndUploadExcelEmptySubMultipleCollection() throws IOException {
         URI uri = URI.create("http://google.com");
         List<String> multipleCollection = new ArrayList<>(Arrays.asList("245000/2020", "245001/2020", "245002/2020"));
         multipleDetails.getCaseData().setSubMultipleCollection(null);
-        when(documentManagementService.uploadDocument(userToken,
-                bytes,
-                MultiplesHelper.generateExcelDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE,
-                multipleDetails.getCaseTypeId()))
+        when(documentManagementService.uploadDocument(eq(userToken), any(MultipartFile.class),
+                eq(multipleDetails.getCaseTypeId())))
                 .thenReturn(uri);
-        when(excelCreationService.writeExcel(multipleCollection,
-                new ArrayList<>(),
-                multipleDetails.getCaseData().getLeadCase()))
-                .thenReturn(bytes);
         excelDocManagementService.generateAndUploadExcel(multipleCollection,
                 userToken, multipleDetails);
-        verify(documentManagementService, times(1)).uploadDocument(userToken,
-                bytes,
-                MultiplesHelper.generateExcelDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE,
-                multipleDetails.getCaseTypeId());
+        verify(documentManagementService, times(1)).uploadDocument(eq(userToken), any(MultipartFile.class),
+                eq(multipleDetails.getCaseTypeId()));
+        verify(documentManagementService, times(1)).evictDocument(PREVIOUS_EXCEL_BINARY_URL);
         verifyNoMoreInteractions(documentManagementService);
         verify(excelCreationService, times(1)).writeExcel(
-                multipleCollection,
-                new ArrayList<>(),
-                multipleDetails.getCaseData().getLeadCase());
+                any(OutputStream.class),
+                eq(multipleCollection),
+                eq(new ArrayList<>()),
+                eq(multipleDetails.getCaseData().getLeadCase()));
         verifyNoMoreInteractions(excelCreationService);
     }
 
     @Test
-    public void writeAndUploadScheduleDocument() {
+    public void generateAndUploadExcelUnchanged() throws IOException {
+        var excelFile = temporaryFolder.newFile("multiple.xlsx");
+        try (var workbook = new XSSFWorkbook(); var outputStream = new FileOutputStream(excelFile)) {
+            var sheet = workbook.createSheet(SHEET_NAME);
+            sheet.createRow(0).createCell(0).setCellValue(HEADER_1);
+            var row = sheet.createRow(1);
+            row.createCell(0).setCellValue("245000/2020");
+            row.createCell(1).setCellValue("SubMultiple");
+            row.createCell(2).setCellValue("AA");
+            sheet.createRow(2).createCell(0).setCellValue("245001/2020");
+            workbook.write(outputStream);
+        }
+        List<MultipleObject> multipleCollection = new ArrayList<>(Arrays.asList(
+                MultipleObject.builder().ethosCaseRef("245001/2020").subMultiple(" ").build(),
+                MultipleObject.builder().ethosCaseRef("245000/2020").subMultiple("SubMultiple").flag1("AA").build()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            ParsedMultiple.put(MultiplesHelper.getExcelBinaryUrl(multipleDetails.getCaseData()),
+                    ParsedMultiple.of(excelFile, Arrays.asList("SubMultiple", "SubMultiple2"), "21006/2020"));
+            excelDocManagementService.generateAndUploadExcel(multipleCollection, userToken, multipleDetails);
+            verifyNoMoreInteractions(documentManagementService);
+            verifyNoMoreInteractions(excelCreationService);
+            assertEquals("2", multipleDetails.getCaseData().getCaseCounter());
+
+            multipleCollection.get(0).setFlag2("BB");
+            when(documentManagementService.uploadDocument(eq(userToken), any(MultipartFile.class),
+                    eq(multipleDetails.getCaseTypeId())))
+                    .thenReturn(URI.create("http://google.com"));
+            excelDocManagementService.generateAndUploadExcel(multipleCollection, userToken, multipleDetails);
+            verify(excelCreationService, times(1)).writeExcel(any(OutputStream.class), eq(multipleCollection),
+                    eq(Arrays.asList("SubMultiple", "SubMultiple2")), eq("21006/2020"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    public void writeAndUploadScheduleDocument() throws IOException {
         URI uri = URI.create("http://google.com");
-        when(scheduleCreationService.writeSchedule(multipleDetails.getCaseData(),
-                new ArrayList<>(),
-                new TreeMap<>()))
-                .thenReturn(bytes);
-        when(documentManagementService.uploadDocument(userToken,
-                bytes,
-                MultiplesScheduleHelper.generateScheduleDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE,
-                multipleDetails.getCaseTypeId()))
-                .thenReturn(uri);
-        excelDocManagementService.writeAndUploadScheduleDocument(userToken, new TreeMap<>(),
-                multipleDetails, new ArrayList<>());
-        verify(documentManagementService, times(1)).uploadDocument(userToken,
-                bytes,
-                MultiplesScheduleHelper.generateScheduleDocumentName(multipleDetails.getCaseData()), APPLICATION_EXCEL_VALUE,
-                multipleDetails.getCaseTypeId());
-        verify(scheduleCreationService, times(1)).writeSchedule(multipleDetails.getCaseData(),
-                new ArrayList<>(),
-                new TreeMap<>());
+        ScheduleCreationService.ScheduleRows scheduleRows = writer -> { };
+        when(documentManagementService.uploadDocument(eq(userToken), any(MultipartFile.class),
+                eq(multipleDetails.getCaseTypeId())))
+                .thenAnswer(invocation -> {
+                    MultipartFile file = invocation.getArgument(1);
+                    assertEquals(MultiplesScheduleHelper.generateScheduleDocumentName(multipleDetails.getCaseData()),
+                            file.getOriginalFilename());
+                    assertEquals(APPLICATION_EXCEL_VALUE, file.getContentType());
+                    assertArrayEquals(bytes, file.getBytes());
+                    return uri;
+                });
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(bytes);
+            return null;
+        }).when(scheduleCreationService).writeSchedule(any(OutputStream.class), eq(multipleDetails.getCaseData()),
+                eq(scheduleRows));
+        var documentInfo = excelDocManagementService.writeAndUploadScheduleDocument(userToken, multipleDetails,
+                scheduleRows);
+        assertEquals(MultiplesScheduleHelper.generateScheduleDocumentName(multipleDetails.getCaseData()),
+                documentInfo.getDescription());
+        verify(documentManagementService, times(1)).uploadDocument(eq(userToken), any(MultipartFile.class),
+                eq(multipleDetails.getCaseTypeId()));
+        verify(scheduleCreationService, times(1)).writeSchedule(any(OutputStream.class),
+                eq(multipleDetails.getCaseData()), eq(scheduleRows));
         verifyNoMoreInteractions(excelCreationService);
     }
 
@@ -1,5 +1,6 @@
 package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -7,16 +8,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleData;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleObject;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.FilterExcelType;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.*;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.ecm.common.model.multiples.MultipleConstants.*;
 import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil.TESTING_FILE_NAME;
@@ -116,6 +124,83 @@ public class ExcelReadingServiceTest {
         assertFalse(flags3.contains("BB"));
     }
 
+    @Test
+    public void readExcelCellTypes() throws IOException {
+
+        var outputStream = new ByteArrayOutputStream();
+        try (var workbook = new XSSFWorkbook()) {
+            var sheet = workbook.createSheet(SHEET_NAME);
+            sheet.createRow(0).createCell(0).setCellValue(HEADER_1);
+            var row = sheet.createRow(1);
+            row.createCell(0).setCellValue("1820001/2019");
+            row.createCell(2).setCellValue(12);
+            row.createCell(3).setCellValue(1.5);
+            row.createCell(4).setCellFormula("1+1");
+            row.createCell(5).setCellValue(true);
+            sheet.protectSheet(CONSTRAINT_KEY);
+            workbook.write(outputStream);
+        }
+        when(excelDocManagementService.downloadExcelDocument(userToken, documentBinaryUrl))
+                .thenReturn(new ByteArrayInputStream(outputStream.toByteArray()));
+        SortedMap<String, Object> multipleObjects = excelReadingService.readExcel(userToken, documentBinaryUrl,
+                errors, multipleData, FilterExcelType.ALL);
+
+        assertEquals(1, multipleObjects.size());
+        var multipleObject = (MultipleObject) multipleObjects.get("1820001/2019");
+        assertEquals("", multipleObject.getSubMultiple());
+        assertEquals("12", multipleObject.getFlag1());
+        assertEquals("1.5", multipleObject.getFlag2());
+        assertEquals("", multipleObject.getFlag3());
+        assertEquals("", multipleObject.getFlag4());
+        assertEquals(0, errors.size());
+    }
+
+    @Test
+    public void readExcelNotProtected() throws IOException {
+
+        var outputStream = new ByteArrayOutputStream();
+        try (var workbook = new XSSFWorkbook()) {
+            workbook.createSheet(SHEET_NAME).createRow(1).createCell(0).setCellValue("1820001/2019");
+            workbook.write(outputStream);
+        }
+        when(excelDocManagementService.downloadExcelDocument(userToken, documentBinaryUrl))
+                .thenReturn(new ByteArrayInputStream(outputStream.toByteArray()));
+        SortedMap<String, Object> multipleObjects = excelReadingService.readExcel(userToken, documentBinaryUrl,
+                errors, multipleData, FilterExcelType.ALL);
+
+        assertTrue(multipleObjects.isEmpty());
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void readExcelOncePerRequest() throws IOException {
+
+        body = new ClassPathResource(TESTING_FILE_NAME);
+        when(excelDocManagementService.downloadExcelDocument(userToken, documentBinaryUrl))
+                .thenAnswer(invocation -> body.getInputStream());
+        var requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        ParsedMultiple parsedMultiple;
+        try {
+            SortedMap<String, Object> all = excelReadingService.readExcel(userToken, documentBinaryUrl,
+                    errors, multipleData, FilterExcelType.ALL);
+            SortedMap<String, Object> flags = excelReadingService.readExcel(userToken, documentBinaryUrl,
+                    errors, multipleData, FilterExcelType.FLAGS);
+            assertEquals(6, all.size());
+            assertEquals(3, flags.size());
+            parsedMultiple = ParsedMultiple.get(documentBinaryUrl);
+            assertEquals(6, parsedMultiple.readTable().size());
+        } finally {
+            requestAttributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+        }
+        verify(excelDocManagementService, times(1)).downloadExcelDocument(userToken, documentBinaryUrl);
+        assertThrows(IOException.class, parsedMultiple::readTable);
+
+        excelReadingService.readExcel(userToken, documentBinaryUrl, errors, multipleData, FilterExcelType.ALL);
+        verify(excelDocManagementService, times(2)).downloadExcelDocument(userToken, documentBinaryUrl);
+    }
+
     @Test
     public void readExcelError() throws IOException {
 
@@ -0,0 +1,57 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.hmcts.ecm.common.model.multiples.MultipleObject;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultipleExcelDiffTest {
+
+    private MultipleTable table;
+
+    @Before
+    public void setUp() {
+        table = MultipleTable.builder()
+                .addRow("245000/2020", "SubMultiple", "AA", "", "", "")
+                .addRow("245001/2020", "", "", "", "", "")
+                .addRow("245002/2020", "SubMultiple", "BB", "", "", "")
+                .build();
+    }
+
+    @Test
+    public void compareUnchanged() {
+        var diff = MultipleExcelDiff.compare(table, Arrays.asList(
+                MultipleObject.builder().ethosCaseRef("245002/2020").subMultiple("SubMultiple").flag1("BB").build(),
+                MultipleObject.builder().ethosCaseRef("245000/2020").subMultiple("SubMultiple").flag1("AA").build(),
+                MultipleObject.builder().ethosCaseRef("245001/2020").flag1(" ").build()));
+
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    public void compareCaseReferences() {
+        var diff = MultipleExcelDiff.compare(table, Arrays.asList("245001/2020", "245003/2020"));
+
+        assertFalse(diff.isEmpty());
+        assertEquals(1, diff.getInserted());
+        assertEquals(2, diff.getDeleted());
+        assertEquals(0, diff.getChanged());
+    }
+
+    @Test
+    public void compareChangedFlags() {
+        var diff = MultipleExcelDiff.compare(table, Arrays.asList(
+                MultipleObject.builder().ethosCaseRef("245000/2020").subMultiple("SubMultiple").flag1("AA").build(),
+                MultipleObject.builder().ethosCaseRef("245001/2020").flag4("CC").build(),
+                MultipleObject.builder().ethosCaseRef("245002/2020").subMultiple("SubMultiple2").flag1("BB").build()));
+
+        assertEquals(0, diff.getInserted());
+        assertEquals(0, diff.getDeleted());
+        assertEquals(2, diff.getChanged());
+    }
+}
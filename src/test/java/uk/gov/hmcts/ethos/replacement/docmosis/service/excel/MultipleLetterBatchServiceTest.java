@@ -0,0 +1,164 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.hmcts.ecm.common.exceptions.DocumentManagementException;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
+import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
+import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.HelperTest;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.EventValidationService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.SpooledMultipartFile;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.TornadoService;
+import uk.gov.hmcts.ethos.replacement.docmosis.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MultipleLetterBatchServiceTest {
+
+    private static final String USER_TOKEN = "authString";
+
+    private TornadoService tornadoService;
+    private SingleCasesReadingService singleCasesReadingService;
+    private EventValidationService eventValidationService;
+    private MultipleLetterBatchService multipleLetterBatchService;
+    private MultipleDetails multipleDetails;
+    private List<SubmitEvent> submitEvents;
+    private List<String> caseIds;
+    private List<String> errors;
+
+    @Before
+    public void setUp() throws IOException {
+        tornadoService = mock(TornadoService.class);
+        singleCasesReadingService = mock(SingleCasesReadingService.class);
+        eventValidationService = mock(EventValidationService.class);
+        var userService = mock(UserService.class);
+        when(userService.getUserDetails(USER_TOKEN)).thenReturn(HelperTest.getUserDetails());
+        multipleLetterBatchService = new MultipleLetterBatchService(tornadoService, singleCasesReadingService,
+                eventValidationService, userService, new SyncTaskExecutor());
+
+        multipleDetails = new MultipleDetails();
+        multipleDetails.setCaseData(MultipleUtil.getMultipleData());
+        multipleDetails.setCaseTypeId("Leeds_Multiple");
+        multipleDetails.setCaseId("1559817606275162");
+        submitEvents = MultipleUtil.getSubmitEvents();
+        caseIds = new ArrayList<>(List.of("245000/2020", "245003/2020"));
+        errors = new ArrayList<>();
+
+        when(singleCasesReadingService.retrieveSingleCases(USER_TOKEN, multipleDetails.getCaseTypeId(), caseIds,
+                multipleDetails.getCaseData().getMultipleSource())).thenReturn(submitEvents);
+        when(eventValidationService.validateHearingNumber(any(), any(), any())).thenReturn(new ArrayList<>());
+        when(tornadoService.renderDocument(any(), any(), anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> letter("letter"));
+    }
+
+    @Test
+    public void generateLettersForAllCases() throws IOException {
+        var entries = captureZipEntries();
+        List<SubmitEvent> unsortedSubmitEvents = new ArrayList<>(submitEvents);
+        Collections.reverse(unsortedSubmitEvents);
+        when(singleCasesReadingService.retrieveSingleCases(USER_TOKEN, multipleDetails.getCaseTypeId(), caseIds,
+                multipleDetails.getCaseData().getMultipleSource())).thenReturn(unsortedSubmitEvents);
+
+        multipleLetterBatchService.generateLetters(USER_TOKEN, multipleDetails, caseIds, errors);
+
+        assertEquals(0, errors.size());
+        assertEquals(List.of("245000-2020.docx", "245003-2020.docx"), entries);
+        verify(tornadoService, times(2)).renderDocument(any(), any(), anyString(), any(), any(), any());
+        verify(tornadoService, times(1)).uploadDocument(eq(USER_TOKEN), any(MultipartFile.class), anyString(),
+                anyString());
+    }
+
+    @Test
+    public void generateLettersWithMissingAndRepeatedCaseReferences() throws IOException {
+        var entries = captureZipEntries();
+        submitEvents.get(1).getCaseData().setEthosCaseReference(
+                submitEvents.get(0).getCaseData().getEthosCaseReference());
+        var noReference = MultipleUtil.getSubmitEvents().get(0);
+        noReference.setCaseId(1232121234);
+        noReference.getCaseData().setEthosCaseReference(null);
+        submitEvents.add(noReference);
+
+        multipleLetterBatchService.generateLetters(USER_TOKEN, multipleDetails, caseIds, errors);
+
+        assertEquals(List.of("245000-2020.docx", "245000-2020 (2).docx", "1232121234.docx"), entries);
+    }
+
+    @Test
+    public void generateLettersUploadFailure() throws IOException {
+        when(tornadoService.uploadDocument(eq(USER_TOKEN), any(MultipartFile.class), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("Upload failed"));
+
+        var exception = assertThrows(DocumentManagementException.class,
+                () -> multipleLetterBatchService.generateLetters(USER_TOKEN, multipleDetails, caseIds, errors));
+
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void generateLettersValidationErrors() throws IOException {
+        when(eventValidationService.validateHearingNumber(any(), any(), any()))
+                .thenReturn(new ArrayList<>(Collections.singletonList("Hearing error")));
+
+        multipleLetterBatchService.generateLetters(USER_TOKEN, multipleDetails, caseIds, errors);
+
+        assertEquals(2, errors.size());
+        assertEquals("245000/2020: Hearing error", errors.get(0));
+        verify(tornadoService, never()).renderDocument(any(), any(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void generateLettersRenderFailure() throws IOException {
+        when(tornadoService.renderDocument(any(), any(), anyString(), any(), any(), any()))
+                .thenThrow(new IOException("Tornado unavailable"));
+
+        var exception = assertThrows(DocumentManagementException.class,
+                () -> multipleLetterBatchService.generateLetters(USER_TOKEN, multipleDetails, caseIds, errors));
+
+        assertTrue(exception.getMessage().contains(multipleDetails.getCaseId()));
+        assertNotNull(exception.getCause());
+    }
+
+    private List<String> captureZipEntries() throws IOException {
+        List<String> entries = new ArrayList<>();
+        when(tornadoService.uploadDocument(eq(USER_TOKEN), any(MultipartFile.class), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    MultipartFile zip = invocation.getArgument(1);
+                    try (var zipInputStream = new ZipInputStream(zip.getInputStream())) {
+                        for (var entry = zipInputStream.getNextEntry(); entry != null;
+                             entry = zipInputStream.getNextEntry()) {
+                            entries.add(entry.getName());
+                        }
+                    }
+                    return new DocumentInfo();
+                });
+        return entries;
+    }
+
+    private SpooledMultipartFile letter(String content) throws IOException {
+        return SpooledMultipartFile.create("files", "document.docx", "application/docx",
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 1024);
+    }
+}
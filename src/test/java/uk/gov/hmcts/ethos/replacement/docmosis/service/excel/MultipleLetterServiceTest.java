@@ -6,6 +6,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
 import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 import uk.gov.hmcts.ecm.common.model.ccd.types.CorrespondenceScotType;
@@ -42,6 +43,8 @@ public class MultipleLetterServiceTest {
     private MultipleLetterService multipleLetterService;
     @Mock
     private MultipleDynamicListFlagsService multipleDynamicListFlagsService;
+    @Mock
+    private MultipleLetterBatchService multipleLetterBatchService;
 
     private TreeMap<String, Object> multipleObjectsFlags;
     private MultipleDetails multipleDetails;
@@ -106,6 +109,24 @@ public class MultipleLetterServiceTest {
         verifyNoMoreInteractions(singleCasesReadingService);
     }
 
+    @Test
+    public void bulkLetterLogicBatchLetters() {
+        ReflectionTestUtils.setField(multipleLetterService, "batchLettersEnabled", true);
+        when(excelReadingService.readExcel(anyString(), anyString(), anyList(), any(), any()))
+                .thenReturn(multipleObjectsFlags);
+        when(multipleLetterBatchService.generateLetters(anyString(), any(), anyList(), anyList()))
+                .thenReturn(new DocumentInfo());
+        multipleLetterService.bulkLetterLogic(userToken,
+                multipleDetails,
+                errors,
+                false);
+        verify(multipleLetterBatchService, times(1)).generateLetters(userToken,
+                multipleDetails,
+                new ArrayList<>(multipleObjectsFlags.keySet()),
+                errors);
+        verifyNoMoreInteractions(singleCasesReadingService);
+    }
+
     @Test
     public void bulkLetterLogicWithoutCases() {
         when(excelReadingService.readExcel(anyString(), anyString(), anyList(), any(), any()))
@@ -3,9 +3,15 @@ package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.hmcts.ecm.common.model.ccd.DocumentInfo;
 import uk.gov.hmcts.ecm.common.model.ccd.items.RespondentSumTypeItem;
 import uk.gov.hmcts.ecm.common.model.ccd.types.RespondentSumType;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
@@ -13,26 +19,33 @@ import uk.gov.hmcts.ecm.common.model.schedule.SchedulePayloadEvent;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.TreeMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.LIST_CASES_CONFIG;
-import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleScheduleService.SCHEDULE_LIMIT_CASES;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 public class MultipleScheduleServiceTest {
 
+    private static final int SCHEDULE_LIMIT_CASES = 10000;
+
     @Mock
     private ExcelReadingService excelReadingService;
     @Mock
     private SingleCasesReadingService singleCasesReadingService;
     @Mock
     private ExcelDocManagementService excelDocManagementService;
+    @Mock
+    private ScheduleCreationService.ScheduleRowWriter scheduleRowWriter;
+    @Spy
+    private TaskExecutor scheduleFetchExecutor = new SyncTaskExecutor();
     @InjectMocks
     private MultipleScheduleService multipleScheduleService;
 
@@ -43,13 +56,20 @@ public class MultipleScheduleServiceTest {
     private String userToken;
 
     @Before
-    public void setUp() {
+    public void setUp() throws IOException {
         multipleObjectsFlags = MultipleUtil.getMultipleObjectsFlags();
         multipleObjectsSubMultiple = MultipleUtil.getMultipleObjectsSubMultiple();
         schedulePayloadEvents = MultipleUtil.getSchedulePayloadEvents();
         multipleDetails = new MultipleDetails();
         multipleDetails.setCaseData(MultipleUtil.getMultipleData());
         userToken = "authString";
+        ReflectionTestUtils.setField(multipleScheduleService, "partitionsInFlight", 5);
+        ReflectionTestUtils.setField(multipleScheduleService, "fetchTimeout", 120000L);
+        ReflectionTestUtils.setField(multipleScheduleService, "scheduleCaseLimit", SCHEDULE_LIMIT_CASES);
+        doAnswer(invocation -> {
+            ((ScheduleCreationService.ScheduleRows) invocation.getArgument(2)).writeTo(scheduleRowWriter);
+            return new DocumentInfo();
+        }).when(excelDocManagementService).writeAndUploadScheduleDocument(anyString(), any(), any());
     }
 
     @Test
@@ -125,6 +145,11 @@ public class MultipleScheduleServiceTest {
                 multipleDetails.getCaseTypeId(),
                 MultiplesScheduleHelper.getSubMultipleCaseIds(multipleObjectsSubMultiple));
         verifyNoMoreInteractions(singleCasesReadingService);
+        InOrder inOrder = inOrder(scheduleRowWriter);
+        inOrder.verify(scheduleRowWriter).startSubMultiple("SubMultiple");
+        inOrder.verify(scheduleRowWriter).addRow(argThat(row -> "245000/2020".equals(row.getEthosCaseRef())));
+        inOrder.verify(scheduleRowWriter).startSubMultiple("SubMultiple3");
+        inOrder.verify(scheduleRowWriter).addRow(argThat(row -> "245003/2020".equals(row.getEthosCaseRef())));
     }
 
     @Test
@@ -156,6 +181,23 @@ public class MultipleScheduleServiceTest {
 
     }
 
+    @Test
+    public void bulkScheduleLogicSearchFailed() {
+        List<String> errors = new ArrayList<>();
+        when(excelReadingService.readExcel(anyString(), anyString(), anyList(), any(), any()))
+                .thenReturn(multipleObjectsFlags);
+        when(singleCasesReadingService.retrieveScheduleCases(userToken,
+                multipleDetails.getCaseTypeId(),
+                new ArrayList<>(multipleObjectsFlags.keySet())))
+                .thenThrow(new IllegalStateException("Search failed"));
+        multipleScheduleService.bulkScheduleLogic(userToken,
+                multipleDetails,
+                errors);
+        assertEquals(List.of("Error Generating Schedules"), errors);
+        assertFalse(Thread.currentThread().isInterrupted());
+        verify(scheduleRowWriter, never()).addRow(any());
+    }
+
     private TreeMap<String, Object> createBigTreeMap() {
 
         TreeMap<String, Object> treeMap= new TreeMap<>();
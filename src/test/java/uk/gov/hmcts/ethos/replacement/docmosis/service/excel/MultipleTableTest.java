@@ -0,0 +1,80 @@
+package uk.gov.hmcts.ethos.replacement.docmosis.service.excel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.ETHOS_CASE_REF;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.FLAG_1;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.FLAG_4;
+import static uk.gov.hmcts.ethos.replacement.docmosis.service.excel.MultipleTable.SUB_MULTIPLE;
+
+public class MultipleTableTest {
+
+    private MultipleTable table;
+
+    @Before
+    public void setUp() {
+        table = MultipleTable.builder()
+                .addRow("1820003/2019", "Sub", "AA", "", "", "")
+                .addRow("1820001/2019", "", "AA", "2", "", "")
+                .addRow("1820002/2019", "Sub", "BB")
+                .addRow("1820004/2019", null, "AA", "", "", "")
+                .build();
+    }
+
+    @Test
+    public void shouldReturnCellValues() {
+        assertEquals(4, table.size());
+        assertEquals("1820003/2019", table.getValue(ETHOS_CASE_REF, 0));
+        assertEquals("Sub", table.getValue(SUB_MULTIPLE, 2));
+        assertEquals("", table.getValue(FLAG_4, 2));
+        assertEquals("", table.getValue(SUB_MULTIPLE, 3));
+    }
+
+    @Test
+    public void shouldShareCodesBetweenEqualValues() {
+        assertEquals(table.getCode(FLAG_1, 0), table.getCode(FLAG_1, 1));
+        assertEquals(table.codeOf("Sub"), table.getCode(SUB_MULTIPLE, 2));
+        assertEquals(-1, table.codeOf("CC"));
+        assertTrue(table.codeOf("AA") < table.codeOf("BB"));
+    }
+
+    @Test
+    public void shouldFindRowsByCaseReference() {
+        assertEquals(1, table.indexOf("1820001/2019"));
+        assertEquals(2, table.indexOf("1820002/2019"));
+        assertEquals(0, table.indexOf("1820003/2019"));
+        assertEquals(3, table.indexOf("1820004/2019"));
+        assertEquals(-1, table.indexOf("1820005/2019"));
+        assertEquals(-1, table.indexOf("AA"));
+    }
+
+    @Test
+    public void shouldFilterRowsByColumn() {
+        var rows = table.allRows();
+        table.retainEqual(rows, FLAG_1, table.codeOf("AA"));
+        table.retainNotEqual(rows, SUB_MULTIPLE, table.codeOf(""));
+
+        assertEquals(1, rows.cardinality());
+        assertTrue(rows.get(0));
+    }
+
+    @Test
+    public void shouldReturnDistinctValues() {
+        assertEquals(List.of("", "Sub"), table.distinctValues(SUB_MULTIPLE));
+        assertEquals(List.of("AA", "BB"), table.distinctValues(FLAG_1));
+    }
+
+    @Test
+    public void shouldBuildEmptyTable() {
+        var empty = MultipleTable.builder().build();
+
+        assertEquals(0, empty.size());
+        assertEquals(-1, empty.indexOf("1820001/2019"));
+        assertTrue(empty.distinctValues(FLAG_1).isEmpty());
+    }
+}
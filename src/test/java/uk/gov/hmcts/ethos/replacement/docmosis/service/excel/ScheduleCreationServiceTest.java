@@ -9,9 +9,13 @@ import uk.gov.hmcts.ecm.common.model.helper.SchedulePayload;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
 
-import java.util.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static uk.gov.hmcts.ecm.common.model.helper.Constants.*;
 import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper.NOT_ALLOCATED;
 
@@ -21,46 +25,55 @@ public class ScheduleCreationServiceTest {
     @InjectMocks
     private ScheduleCreationService scheduleCreationService;
 
-    private TreeMap<String, Object> multipleObjectsFlags;
-    private TreeMap<String, Object> multipleObjectsSubMultiple;
     private MultipleDetails multipleDetails;
     private List<SchedulePayload> schedulePayloads;
 
     @Before
     public void setUp() {
-        multipleObjectsFlags = MultipleUtil.getMultipleObjectsFlags();
-        multipleObjectsSubMultiple = MultipleUtil.getMultipleObjectsSubMultiple();
         multipleDetails = new MultipleDetails();
         multipleDetails.setCaseData(MultipleUtil.getMultipleData());
         schedulePayloads = getSchedulePayload();
     }
 
     @Test
-    public void writeSchedule() {
+    public void writeSchedule() throws IOException {
         multipleDetails.getCaseData().setScheduleDocName(MULTIPLE_SCHEDULE_CONFIG);
-        assertNotNull(scheduleCreationService.writeSchedule(
-                multipleDetails.getCaseData(),
-                schedulePayloads,
-                multipleObjectsFlags));
+        var outputStream = new ByteArrayOutputStream();
+        scheduleCreationService.writeSchedule(outputStream, multipleDetails.getCaseData(),
+            writer -> schedulePayloads.forEach(writer::addRow));
+        assertTrue(outputStream.size() > 0);
     }
 
     @Test
-    public void writeScheduleDetailed() {
+    public void writeScheduleDetailed() throws IOException {
         multipleDetails.getCaseData().setScheduleDocName(MULTIPLE_SCHEDULE_DETAILED_CONFIG);
-        assertNotNull(scheduleCreationService.writeSchedule(
-                multipleDetails.getCaseData(),
-                schedulePayloads,
-                multipleObjectsFlags));
+        var outputStream = new ByteArrayOutputStream();
+        scheduleCreationService.writeSchedule(outputStream, multipleDetails.getCaseData(),
+            writer -> schedulePayloads.forEach(writer::addRow));
+        assertTrue(outputStream.size() > 0);
     }
 
     @Test
-    public void writeScheduleSubMultiplesNoAllocated() {
-        multipleObjectsSubMultiple.put(NOT_ALLOCATED, new ArrayList<>(Collections.singletonList("245002/2020")));
+    public void writeScheduleSubMultiplesNoAllocated() throws IOException {
         multipleDetails.getCaseData().setScheduleDocName(LIST_CASES_CONFIG);
-        assertNotNull(scheduleCreationService.writeSchedule(
-                multipleDetails.getCaseData(),
-                schedulePayloads,
-                multipleObjectsSubMultiple));
+        var outputStream = new ByteArrayOutputStream();
+        scheduleCreationService.writeSchedule(outputStream, multipleDetails.getCaseData(), writer -> {
+            writer.startSubMultiple("SubMultiple");
+            writer.addRow(schedulePayloads.get(0));
+            writer.startSubMultiple("SubMultiple3");
+            writer.addRow(schedulePayloads.get(2));
+            writer.startSubMultiple(NOT_ALLOCATED);
+            writer.addRow(schedulePayloads.get(1));
+        });
+        assertTrue(outputStream.size() > 0);
+    }
+
+    @Test
+    public void writeScheduleWithoutRows() throws IOException {
+        multipleDetails.getCaseData().setScheduleDocName(MULTIPLE_SCHEDULE_CONFIG);
+        var outputStream = new ByteArrayOutputStream();
+        scheduleCreationService.writeSchedule(outputStream, multipleDetails.getCaseData(), writer -> { });
+        assertTrue(outputStream.size() > 0);
     }
 
     private List<SchedulePayload> getSchedulePayload() {
@@ -11,6 +11,7 @@ import uk.gov.hmcts.ecm.common.model.ccd.SubmitEvent;
 import uk.gov.hmcts.ecm.common.model.labels.LabelPayloadEvent;
 import uk.gov.hmcts.ecm.common.model.multiples.MultipleDetails;
 import uk.gov.hmcts.ecm.common.model.schedule.SchedulePayloadEvent;
+import uk.gov.hmcts.ethos.replacement.docmosis.helpers.CaseReferencesElasticSearchQuery;
 import uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultipleUtil;
 import uk.gov.hmcts.ethos.replacement.docmosis.utils.InternalException;
 
@@ -23,6 +24,8 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.*;
+import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.LabelsHelper.LABEL_SOURCE_FIELDS;
+import static uk.gov.hmcts.ethos.replacement.docmosis.helpers.MultiplesScheduleHelper.SCHEDULE_SOURCE_FIELDS;
 import static uk.gov.hmcts.ethos.replacement.docmosis.utils.InternalException.ERROR_MESSAGE;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -84,24 +87,26 @@ public class SingleCasesReadingServiceTest {
 
     @Test
     public void retrieveScheduleCases() throws IOException {
-        when(ccdClient.retrieveCasesElasticSearchSchedule(userToken,
+        String query = CaseReferencesElasticSearchQuery.create(
+                new ArrayList<>(Collections.singletonList("240001/2020")), SCHEDULE_SOURCE_FIELDS);
+        when(ccdClient.runElasticSearch(userToken, "Manchester", query, ScheduleSearchResult.class))
+                .thenReturn(new ScheduleSearchResult(2L, new ArrayList<>(schedulePayloadEvents)));
+        HashSet<SchedulePayloadEvent> schedulePayloadEventList = singleCasesReadingService.retrieveScheduleCases(
+                userToken,
                 multipleDetails.getCaseTypeId(),
-                new ArrayList<>(Collections.singletonList("240001/2020"))))
-                .thenReturn(new ArrayList<>(schedulePayloadEvents));
-        singleCasesReadingService.retrieveScheduleCases(userToken,
-                multipleDetails.getCaseTypeId(),
-                new ArrayList<>(Collections.singletonList("240001/2020")));
-        verify(ccdClient, times(1)).retrieveCasesElasticSearchSchedule(userToken,
-                "Manchester",
                 new ArrayList<>(Collections.singletonList("240001/2020")));
+        assertEquals(schedulePayloadEvents, schedulePayloadEventList);
+        verify(ccdClient, times(1)).runElasticSearch(userToken, "Manchester", query,
+                ScheduleSearchResult.class);
         verifyNoMoreInteractions(ccdClient);
     }
 
     @Test
     public void retrieveScheduleCasesException() throws IOException {
-        when(ccdClient.retrieveCasesElasticSearchSchedule(anyString(),
+        when(ccdClient.runElasticSearch(anyString(),
+                anyString(),
                 anyString(),
-                anyList()))
+                eq(ScheduleSearchResult.class)))
                 .thenThrow(new InternalException(ERROR_MESSAGE));
         HashSet<SchedulePayloadEvent> schedulePayloadEventList = singleCasesReadingService.retrieveScheduleCases(userToken,
                 multipleDetails.getCaseTypeId(),
@@ -111,24 +116,24 @@ public class SingleCasesReadingServiceTest {
 
     @Test
     public void retrieveLabelCases() throws IOException {
-        when(ccdClient.retrieveCasesElasticSearchLabels(userToken,
+        String query = CaseReferencesElasticSearchQuery.create(
+                new ArrayList<>(Collections.singletonList("240001/2020")), LABEL_SOURCE_FIELDS);
+        when(ccdClient.runElasticSearch(userToken, "Manchester", query, LabelSearchResult.class))
+                .thenReturn(new LabelSearchResult(2L, labelPayloadEvents));
+        List<LabelPayloadEvent> labelPayloadEventList = singleCasesReadingService.retrieveLabelCases(userToken,
                 multipleDetails.getCaseTypeId(),
-                new ArrayList<>(Collections.singletonList("240001/2020"))))
-                .thenReturn(labelPayloadEvents);
-        singleCasesReadingService.retrieveLabelCases(userToken,
-                multipleDetails.getCaseTypeId(),
-                new ArrayList<>(Collections.singletonList("240001/2020")));
-        verify(ccdClient, times(1)).retrieveCasesElasticSearchLabels(userToken,
-                "Manchester",
                 new ArrayList<>(Collections.singletonList("240001/2020")));
+        assertEquals(labelPayloadEvents, labelPayloadEventList);
+        verify(ccdClient, times(1)).runElasticSearch(userToken, "Manchester", query, LabelSearchResult.class);
         verifyNoMoreInteractions(ccdClient);
     }
 
     @Test
     public void retrieveLabelCasesException() throws IOException {
-        when(ccdClient.retrieveCasesElasticSearchLabels(anyString(),
+        when(ccdClient.runElasticSearch(anyString(),
+                anyString(),
                 anyString(),
-                anyList()))
+                eq(LabelSearchResult.class)))
                 .thenThrow(new InternalException(ERROR_MESSAGE));
         List<LabelPayloadEvent> labelPayloadEvents = singleCasesReadingService.retrieveLabelCases(userToken,
                 multipleDetails.getCaseTypeId(),